@@ -1,37 +1,23 @@
 package com.hfgroup.mortgage.Repository;
 
 import com.hfgroup.mortgage.model.Application;
-import org.springframework.data.domain.Page;
-import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.JpaSpecificationExecutor;
+import org.springframework.data.jpa.repository.Query;
 
-import java.time.LocalDateTime;
 import java.util.Optional;
 import java.util.UUID;
 
-public interface ApplicationRepository extends JpaRepository<Application, UUID> {
+public interface ApplicationRepository extends JpaRepository<Application, UUID>, JpaSpecificationExecutor<Application> {
     // Find by applicant ID
     @EntityGraph(attributePaths = "documents")
     Optional<Application> findById(UUID id);
-    // Find by status
-    Page<Application> findByStatus(String status, Pageable pageable);
-    
-    // Find by national ID
-    Page<Application> findByNationalId(String nationalId, Pageable pageable);
-    
-    // Find by date range
-    Page<Application> findByCreatedAtBetween(LocalDateTime createdFrom, LocalDateTime createdTo, Pageable pageable);
-    
-    // Find by status and date range
-    Page<Application> findByStatusAndCreatedAtBetween(String status, LocalDateTime createdFrom, LocalDateTime createdTo, Pageable pageable);
-    
-    // Find by national ID and date range
-    Page<Application> findByNationalIdAndCreatedAtBetween(String nationalId, LocalDateTime createdFrom, LocalDateTime createdTo, Pageable pageable);
-    
-    // Find by status and national ID
-    Page<Application> findByStatusAndNationalId(String status, String nationalId, Pageable pageable);
-    
-    // Find by status, national ID and date range
-    Page<Application> findByStatusAndNationalIdAndCreatedAtBetween(String status, String nationalId, LocalDateTime createdFrom, LocalDateTime createdTo, Pageable pageable);
+
+    @Query("SELECT a.version FROM Application a WHERE a.id = :id")
+    Optional<Long> findVersionById(UUID id);
+
+    // Planner row estimate for the whole table, maintained by ANALYZE/autovacuum; -1 if never analyzed
+    @Query(value = "SELECT CAST(reltuples AS bigint) FROM pg_class WHERE oid = to_regclass('applications')", nativeQuery = true)
+    long estimateRowCount();
 }
@@ -0,0 +1,122 @@
+package com.hfgroup.mortgage.Repository;
+
+import com.hfgroup.mortgage.dto.request.ApplicationFilterDTO;
+import com.hfgroup.mortgage.model.Application;
+import jakarta.persistence.criteria.Expression;
+import jakarta.persistence.criteria.Predicate;
+import org.springframework.data.jpa.domain.Specification;
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * Builds the WHERE clause for application listings from whichever filters are set, so every
+ * combination becomes a single query whose predicates line up with the application indexes:
+ * (created_at, id) and (status, created_at, id) from V10, national_id from V12 and
+ * (applicant_id, created_at, id) from V14. The filters are defined once in {@link #conditions}
+ * and rendered either as a JPA specification or as SQL for the JDBC export, so both select the
+ * same rows.
+ */
+public final class ApplicationSpecifications {
+
+    private ApplicationSpecifications() {
+    }
+
+    enum Operator {
+        EQUAL("="), AT_LEAST(">="), AT_MOST("<=");
+
+        private final String sql;
+
+        Operator(String sql) {
+            this.sql = sql;
+        }
+    }
+
+    /**
+     * One set filter: the entity attribute and column it applies to, and the value to compare with.
+     * name is the filter field and doubles as the SQL parameter name.
+     */
+    record Condition(String name, String attribute, String column, Operator operator, Object value) {
+    }
+
+    static List<Condition> conditions(ApplicationFilterDTO filter) {
+        List<Condition> conditions = new ArrayList<>();
+        add(conditions, "status", "status", "status", Operator.EQUAL, filter.getStatus());
+        add(conditions, "nationalId", "nationalId", "national_id", Operator.EQUAL, filter.getNationalId());
+        add(conditions, "applicantId", "applicantId", "applicant_id", Operator.EQUAL, filter.getApplicantId());
+        add(conditions, "createdFrom", "createdAt", "created_at", Operator.AT_LEAST, filter.getCreatedFrom());
+        add(conditions, "createdTo", "createdAt", "created_at", Operator.AT_MOST, filter.getCreatedTo());
+        add(conditions, "minAmount", "amount", "amount", Operator.AT_LEAST, filter.getMinAmount());
+        add(conditions, "maxAmount", "amount", "amount", Operator.AT_MOST, filter.getMaxAmount());
+        return conditions;
+    }
+
+    private static void add(List<Condition> conditions, String name, String attribute, String column, Operator operator, Object value) {
+        if (value != null) {
+            conditions.add(new Condition(name, attribute, column, operator, value));
+        }
+    }
+
+    /**
+     * Method to combine all non-null filters with AND.
+     * @param filter The filter criteria, any field may be null.
+     * @return A specification matching every application when no filter is set.
+     */
+    @SuppressWarnings("unchecked")
+    public static Specification<Application> matching(ApplicationFilterDTO filter) {
+        List<Condition> conditions = conditions(filter);
+        return (root, query, cb) -> {
+            List<Predicate> predicates = new ArrayList<>(conditions.size());
+            for (Condition condition : conditions) {
+                Expression<Comparable<Object>> path = root.get(condition.attribute());
+                Comparable<Object> value = (Comparable<Object>) condition.value();
+                predicates.add(switch (condition.operator()) {
+                    case EQUAL -> cb.equal(path, value);
+                    case AT_LEAST -> cb.greaterThanOrEqualTo(path, value);
+                    case AT_MOST -> cb.lessThanOrEqualTo(path, value);
+                });
+            }
+            return cb.and(predicates.toArray(new Predicate[0]));
+        };
+    }
+
+    /**
+     * Method to render the same filters as {@link #matching} as an SQL WHERE clause over the
+     * applications table, for queries that bypass JPA.
+     * @param filter The filter criteria, any field may be null.
+     * @param params Receives one named parameter per set filter.
+     * @return " WHERE ..." or an empty string when no filter is set.
+     */
+    public static String sqlWhere(ApplicationFilterDTO filter, MapSqlParameterSource params) {
+        List<String> predicates = new ArrayList<>();
+        for (Condition condition : conditions(filter)) {
+            predicates.add(condition.column() + " " + condition.operator().sql + " :" + condition.name());
+            params.addValue(condition.name(), condition.value());
+        }
+        return predicates.isEmpty() ? "" : " WHERE " + String.join(" AND ", predicates);
+    }
+
+    /**
+     * Method to select the rows after a keyset position when ordering by created_at DESC, id DESC.
+     * Written as {@code created_at <= :c AND (created_at < :c OR id < :id)} rather than a plain OR
+     * so Postgres gets a range condition on the leading index column and seeks instead of scanning.
+     * @param createdAt created_at of the last row already returned.
+     * @param id id of the last row already returned.
+     */
+    public static Specification<Application> before(LocalDateTime createdAt, UUID id) {
+        return (root, query, cb) -> cb.and(
+                cb.lessThanOrEqualTo(root.get("createdAt"), createdAt),
+                cb.or(cb.lessThan(root.get("createdAt"), createdAt),
+                        cb.lessThan(root.<UUID>get("id"), id)));
+    }
+
+    /**
+     * @return true if no filter is set, i.e. {@link #matching} selects the whole table.
+     */
+    public static boolean isUnfiltered(ApplicationFilterDTO filter) {
+        return conditions(filter).isEmpty();
+    }
+}
@@ -0,0 +1,97 @@
+package com.hfgroup.mortgage.Repository;
+
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * JDBC access to dead_letter_events, the inspectable copy of loan.applications.dlt.
+ */
+@Repository
+public class DeadLetterJdbcRepository {
+
+    private final JdbcTemplate jdbcTemplate;
+
+    public DeadLetterJdbcRepository(JdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    public record NewDeadLetter(String originalTopic, Integer originalPartition, Long originalOffset, int dltPartition,
+                                long dltOffset, String key, UUID eventId, byte[] payload, String contentType, int attempts,
+                                String error) {
+    }
+
+    public record DeadLetter(long id, String originalTopic, Integer originalPartition, Long originalOffset, String key,
+                             UUID eventId, byte[] payload, String contentType, int attempts, String error,
+                             LocalDateTime failedAt, LocalDateTime replayedAt) {
+    }
+
+    public void insertAll(List<NewDeadLetter> deadLetters) {
+        jdbcTemplate.batchUpdate("""
+                INSERT INTO dead_letter_events (original_topic, original_partition, original_offset, dlt_partition, dlt_offset,
+                                                event_key, event_id, payload, content_type, attempts, error)
+                VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?)
+                ON CONFLICT (dlt_partition, dlt_offset) DO NOTHING
+                """, deadLetters, deadLetters.size(), (ps, deadLetter) -> {
+            ps.setString(1, deadLetter.originalTopic());
+            ps.setObject(2, deadLetter.originalPartition());
+            ps.setObject(3, deadLetter.originalOffset());
+            ps.setInt(4, deadLetter.dltPartition());
+            ps.setLong(5, deadLetter.dltOffset());
+            ps.setString(6, deadLetter.key());
+            ps.setObject(7, deadLetter.eventId());
+            ps.setBytes(8, deadLetter.payload());
+            ps.setString(9, deadLetter.contentType());
+            ps.setInt(10, deadLetter.attempts());
+            ps.setString(11, deadLetter.error());
+        });
+    }
+
+    /**
+     * Method to page through dead letters by id.
+     * @param afterId Only entries with a larger id, 0 for the first page.
+     * @param includeReplayed Whether entries that were already replayed are listed.
+     */
+    public List<DeadLetter> findPage(long afterId, int limit, boolean includeReplayed) {
+        return jdbcTemplate.query("""
+                SELECT id, original_topic, original_partition, original_offset, event_key, event_id, payload, content_type,
+                       attempts, error, failed_at, replayed_at
+                FROM dead_letter_events
+                WHERE id > ? AND (? OR replayed_at IS NULL)
+                ORDER BY id
+                LIMIT ?
+                """, (rs, rowNum) -> new DeadLetter(rs.getLong("id"), rs.getString("original_topic"),
+                        rs.getObject("original_partition", Integer.class), rs.getObject("original_offset", Long.class),
+                        rs.getString("event_key"), rs.getObject("event_id", UUID.class), rs.getBytes("payload"),
+                        rs.getString("content_type"), rs.getInt("attempts"), rs.getString("error"),
+                        rs.getObject("failed_at", LocalDateTime.class), rs.getObject("replayed_at", LocalDateTime.class)),
+                afterId, includeReplayed, limit);
+    }
+
+    /**
+     * Method to copy dead letters back into the outbox, in id order, and mark them replayed in the
+     * same statement. Entries already replayed, or without a payload or key, are left alone.
+     * @return How many entries were replayed.
+     */
+    public int replay(List<Long> ids, String topic) {
+        return jdbcTemplate.update(connection -> {
+            var ps = connection.prepareStatement("""
+                    WITH replayed AS (
+                        UPDATE dead_letter_events SET replayed_at = LOCALTIMESTAMP
+                        WHERE id = ANY (?) AND replayed_at IS NULL AND payload IS NOT NULL AND event_key IS NOT NULL
+                        RETURNING id, event_key, event_id, payload, content_type
+                    )
+                    INSERT INTO outbox_events (topic, event_key, event_id, payload, content_type)
+                    SELECT ?, event_key, event_id, payload, COALESCE(content_type, 'application/json')
+                    FROM replayed
+                    ORDER BY id
+                    """);
+            ps.setArray(1, connection.createArrayOf("bigint", ids.toArray()));
+            ps.setString(2, topic);
+            return ps;
+        });
+    }
+}
@@ -0,0 +1,112 @@
+package com.hfgroup.mortgage.Repository;
+
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import java.sql.Array;
+import java.sql.PreparedStatement;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * Set-based decision writes. A whole list of decisions is applied in a single statement: the
+ * status flip is conditional on the application still being PENDING and undecided (and, when the
+ * caller sent one, on its expected version), and the decision insert relies on the unique
+ * application_id, so concurrent duplicate decisions are rejected by the database rather than by
+ * a read-then-write check. Every applied decision bumps the application version.
+ */
+@Repository
+public class DecisionJdbcRepository {
+
+    private static final String DECIDE = """
+            WITH input AS (
+                SELECT * FROM unnest(?::uuid[], ?::varchar[], ?::text[], ?::bigint[])
+                    WITH ORDINALITY AS t(application_id, decision, comment, expected_version, ord)
+            ),
+            updated AS (
+                UPDATE applications a
+                SET status = i.decision, updated_at = LOCALTIMESTAMP, version = a.version + 1
+                FROM input i
+                WHERE a.id = i.application_id
+                  AND a.status = 'PENDING'
+                  AND (i.expected_version IS NULL OR a.version = i.expected_version)
+                  AND NOT EXISTS (SELECT 1 FROM decisions d WHERE d.application_id = a.id)
+                RETURNING a.id, i.decision, i.comment, a.version
+            ),
+            inserted AS (
+                INSERT INTO decisions (id, application_id, approver_id, decision, comment, created_at)
+                SELECT gen_random_uuid(), u.id, ?, u.decision, u.comment, LOCALTIMESTAMP
+                FROM updated u
+                ON CONFLICT (application_id) DO NOTHING
+                RETURNING id, application_id, created_at
+            )
+            SELECT i.application_id, i.decision, i.comment, ins.id AS decision_id, ins.created_at,
+                   a.id IS NOT NULL AS found,
+                   CASE WHEN u.id IS NOT NULL THEN u.decision ELSE a.status END AS current_status,
+                   COALESCE(u.version, a.version) AS current_version
+            FROM input i
+            LEFT JOIN applications a ON a.id = i.application_id
+            LEFT JOIN updated u ON u.id = i.application_id
+            LEFT JOIN inserted ins ON ins.application_id = i.application_id
+            ORDER BY i.ord
+            """;
+
+    private final JdbcTemplate jdbcTemplate;
+
+    public DecisionJdbcRepository(JdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    /**
+     * expectedVersion is null when the caller does not care which version it decides on.
+     */
+    public record DecisionCommand(UUID applicationId, String decision, String comment, Long expectedVersion) {
+    }
+
+    /**
+     * decisionId and createdAt are null when the decision was not applied; found, currentStatus and
+     * currentVersion then tell "no such application", "already decided" and "stale version" apart.
+     */
+    public record DecisionOutcome(UUID applicationId, String decision, String comment, UUID decisionId,
+                                  LocalDateTime createdAt, boolean found, String currentStatus, Long currentVersion) {
+        public boolean applied() {
+            return decisionId != null;
+        }
+    }
+
+    /**
+     * Method to apply decisions to PENDING applications in one round trip.
+     * Application ids must be distinct.
+     * @param approverId The officer making the decisions.
+     * @param commands The decisions to apply.
+     * @return One outcome per command, in the same order.
+     */
+    public List<DecisionOutcome> decideAll(UUID approverId, List<DecisionCommand> commands) {
+        return jdbcTemplate.query(connection -> {
+            PreparedStatement ps = connection.prepareStatement(DECIDE);
+            Array ids = connection.createArrayOf("uuid", commands.stream().map(DecisionCommand::applicationId).toArray());
+            Array decisions = connection.createArrayOf("varchar", commands.stream().map(DecisionCommand::decision).toArray());
+            Array comments = connection.createArrayOf("text", commands.stream().map(DecisionCommand::comment).toArray());
+            Array versions = connection.createArrayOf("bigint", commands.stream().map(DecisionCommand::expectedVersion).toArray());
+            ps.setArray(1, ids);
+            ps.setArray(2, decisions);
+            ps.setArray(3, comments);
+            ps.setArray(4, versions);
+            ps.setObject(5, approverId);
+            return ps;
+        }, (rs, rowNum) -> {
+            Timestamp createdAt = rs.getTimestamp("created_at");
+            return new DecisionOutcome(
+                    rs.getObject("application_id", UUID.class),
+                    rs.getString("decision"),
+                    rs.getString("comment"),
+                    rs.getObject("decision_id", UUID.class),
+                    createdAt == null ? null : createdAt.toLocalDateTime(),
+                    rs.getBoolean("found"),
+                    rs.getString("current_status"),
+                    rs.getObject("current_version", Long.class));
+        });
+    }
+}
@@ -1,9 +1,17 @@
 package com.hfgroup.mortgage.Repository;
 
+import com.hfgroup.mortgage.dto.response.DocumentView;
 import com.hfgroup.mortgage.model.Document;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
 
+import java.util.Collection;
+import java.util.List;
 import java.util.UUID;
 
 public interface DocumentRepository extends JpaRepository<Document, UUID> {
+    // Documents of a whole page of applications in one query, projected straight into the read model
+    @Query("SELECT new com.hfgroup.mortgage.dto.response.DocumentView(d.id, d.application.id, d.fileName, d.fileType, d.size, d.url, d.createdAt) " +
+            "FROM Document d WHERE d.application.id IN :applicationIds ORDER BY d.createdAt")
+    List<DocumentView> findViewsByApplicationIdIn(Collection<UUID> applicationIds);
 }
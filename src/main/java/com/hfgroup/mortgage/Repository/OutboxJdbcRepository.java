@@ -0,0 +1,98 @@
+package com.hfgroup.mortgage.Repository;
+
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * JDBC access to outbox_events. Inserts are batched so a chunk of events costs one round trip,
+ * and the relay claims rows with FOR UPDATE SKIP LOCKED.
+ */
+@Repository
+public class OutboxJdbcRepository {
+
+    private final JdbcTemplate jdbcTemplate;
+
+    public OutboxJdbcRepository(JdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    public record NewEvent(String topic, String key, UUID eventId, byte[] payload, String contentType) {
+    }
+
+    public record PendingEvent(long id, String topic, String key, UUID eventId, byte[] payload, String contentType, int attempts) {
+    }
+
+    public void insertAll(List<NewEvent> events) {
+        jdbcTemplate.batchUpdate("INSERT INTO outbox_events (topic, event_key, event_id, payload, content_type) VALUES (?, ?, ?, ?, ?)",
+                events, events.size(), (ps, event) -> {
+                    ps.setString(1, event.topic());
+                    ps.setString(2, event.key());
+                    ps.setObject(3, event.eventId());
+                    ps.setBytes(4, event.payload());
+                    ps.setString(5, event.contentType());
+                });
+    }
+
+    /**
+     * Method to take a transaction-scoped advisory lock, so only one relay publishes at a time
+     * and events leave in id order even with several instances running.
+     * @return false if another relay holds the lock.
+     */
+    public boolean tryRelayLock(long lockKey) {
+        return Boolean.TRUE.equals(jdbcTemplate.queryForObject("SELECT pg_try_advisory_xact_lock(?)", Boolean.class, lockKey));
+    }
+
+    /**
+     * Method to claim the oldest unpublished events. Must run inside the relay transaction.
+     * Rows that have failed maxAttempts times are left for inspection and no longer retried, and
+     * later rows with the same topic and key are held back behind them so the key's order is
+     * kept. Resetting attempts on the stuck row, or deleting it, releases the key.
+     */
+    public List<PendingEvent> lockPending(int limit, int maxAttempts) {
+        return jdbcTemplate.query("""
+                SELECT id, topic, event_key, event_id, payload, content_type, attempts FROM outbox_events pending
+                WHERE published_at IS NULL AND attempts < ?
+                  AND NOT EXISTS (
+                      SELECT 1 FROM outbox_events stuck
+                      WHERE stuck.topic = pending.topic AND stuck.event_key = pending.event_key AND stuck.id < pending.id
+                        AND stuck.published_at IS NULL AND stuck.attempts >= ?
+                  )
+                ORDER BY id
+                LIMIT ?
+                FOR UPDATE SKIP LOCKED
+                """,
+                (rs, rowNum) -> new PendingEvent(rs.getLong("id"), rs.getString("topic"), rs.getString("event_key"),
+                        rs.getObject("event_id", UUID.class), rs.getBytes("payload"), rs.getString("content_type"), rs.getInt("attempts")),
+                maxAttempts, maxAttempts, limit);
+    }
+
+    public void markPublished(List<Long> ids) {
+        jdbcTemplate.update(connection -> {
+            var ps = connection.prepareStatement(
+                    "UPDATE outbox_events SET published_at = LOCALTIMESTAMP, attempts = attempts + 1 WHERE id = ANY (?)");
+            ps.setArray(1, connection.createArrayOf("bigint", ids.toArray()));
+            return ps;
+        });
+    }
+
+    public void markFailed(long id, String error) {
+        jdbcTemplate.update("UPDATE outbox_events SET attempts = attempts + 1, last_error = ? WHERE id = ?", error, id);
+    }
+
+    /**
+     * Deletes at most limit published events older than the cutoff.
+     * @return How many rows were deleted.
+     */
+    public int deletePublishedBefore(LocalDateTime cutoff, int limit) {
+        return jdbcTemplate.update("""
+                DELETE FROM outbox_events WHERE id IN (
+                    SELECT id FROM outbox_events WHERE published_at < ? LIMIT ?
+                )
+                """, Timestamp.valueOf(cutoff), limit);
+    }
+}
@@ -0,0 +1,82 @@
+package com.hfgroup.mortgage.Repository;
+
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.stereotype.Repository;
+
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+import java.util.function.Consumer;
+
+/**
+ * JDBC access to processed_events. Lookups and inserts take a whole batch of ids as one array
+ * parameter, so de-duplicating a polled batch costs at most one round trip each way.
+ */
+@Repository
+public class ProcessedEventJdbcRepository {
+
+    private final JdbcTemplate jdbcTemplate;
+
+    public ProcessedEventJdbcRepository(JdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    /**
+     * @return The subset of eventIds already recorded for the consumer group.
+     */
+    public Set<UUID> findProcessed(String consumerGroup, Collection<UUID> eventIds) {
+        return new HashSet<>(jdbcTemplate.query(connection -> {
+            var ps = connection.prepareStatement(
+                    "SELECT event_id FROM processed_events WHERE consumer_group = ? AND event_id = ANY (?)");
+            ps.setString(1, consumerGroup);
+            ps.setArray(2, connection.createArrayOf("uuid", eventIds.toArray()));
+            return ps;
+        }, (rs, rowNum) -> rs.getObject(1, UUID.class)));
+    }
+
+    /**
+     * Method to stream every id recorded for the consumer group, e.g. to fill an in-memory filter.
+     */
+    public void forEachProcessed(String consumerGroup, Consumer<UUID> action) {
+        jdbcTemplate.query("SELECT event_id FROM processed_events WHERE consumer_group = ?",
+                (RowCallbackHandler) rs -> action.accept(rs.getObject(1, UUID.class)), consumerGroup);
+    }
+
+    /**
+     * @return Ids recorded for the consumer group at or after the given time.
+     */
+    public List<UUID> findProcessedSince(String consumerGroup, LocalDateTime since) {
+        return jdbcTemplate.query("SELECT event_id FROM processed_events WHERE consumer_group = ? AND processed_at >= ?",
+                (rs, rowNum) -> rs.getObject(1, UUID.class), consumerGroup, Timestamp.valueOf(since));
+    }
+
+    public void insertAll(String consumerGroup, Collection<UUID> eventIds) {
+        jdbcTemplate.update(connection -> {
+            var ps = connection.prepareStatement("""
+                    INSERT INTO processed_events (consumer_group, event_id)
+                    SELECT ?, id FROM unnest(?::uuid[]) AS t(id)
+                    ON CONFLICT DO NOTHING
+                    """);
+            ps.setString(1, consumerGroup);
+            ps.setArray(2, connection.createArrayOf("uuid", eventIds.toArray()));
+            return ps;
+        });
+    }
+
+    /**
+     * Deletes at most limit entries recorded before the cutoff.
+     * @return How many rows were deleted.
+     */
+    public int deleteProcessedBefore(LocalDateTime cutoff, int limit) {
+        return jdbcTemplate.update("""
+                DELETE FROM processed_events WHERE ctid IN (
+                    SELECT ctid FROM processed_events WHERE processed_at < ? LIMIT ?
+                )
+                """, Timestamp.valueOf(cutoff), limit);
+    }
+}
@@ -1,50 +1,241 @@
 package com.hfgroup.mortgage.config;
 
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.hfgroup.mortgage.event.ApplicationEvent;
+import com.hfgroup.mortgage.event.ApplicationEventCodec;
+import com.hfgroup.mortgage.event.ApplicationEventDeserializer;
+import com.hfgroup.mortgage.event.BinaryApplicationEventCodec;
+import com.hfgroup.mortgage.event.JsonApplicationEventCodec;
+import com.hfgroup.mortgage.service.ApplicationEventRetryRouter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.apache.kafka.clients.admin.NewTopic;
 import org.apache.kafka.clients.consumer.ConsumerConfig;
 import org.apache.kafka.clients.producer.ProducerConfig;
+import org.apache.kafka.common.serialization.ByteArrayDeserializer;
+import org.apache.kafka.common.serialization.ByteArraySerializer;
 import org.apache.kafka.common.serialization.StringDeserializer;
 import org.apache.kafka.common.serialization.StringSerializer;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.kafka.annotation.EnableKafka;
 import org.springframework.kafka.config.ConcurrentKafkaListenerContainerFactory;
+import org.springframework.kafka.config.TopicBuilder;
 import org.springframework.kafka.core.*;
+import org.springframework.kafka.listener.ContainerProperties;
+import org.springframework.kafka.listener.DefaultErrorHandler;
+import org.springframework.kafka.support.serializer.ErrorHandlingDeserializer;
+import org.springframework.util.backoff.ExponentialBackOff;
 
+import java.util.ArrayList;
 import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
 
 @EnableKafka
 @Configuration
 public class KafkaConfig {
 
+    @Value("${spring.kafka.bootstrap-servers:localhost:9092}")
+    private String bootstrapServers;
+
+    @Value("${spring.kafka.consumer.group-id:application-group}")
+    private String groupId;
+
+    @Value("${kafka.consumer.max-poll-records:500}")
+    private int maxPollRecords;
+
+    @Value("${kafka.consumer.fetch-min-bytes:65536}")
+    private int fetchMinBytes;
+
+    @Value("${kafka.consumer.fetch-max-wait-ms:100}")
+    private int fetchMaxWaitMs;
+
+    @Value("${kafka.consumer.max-partition-fetch-bytes:1048576}")
+    private int maxPartitionFetchBytes;
+
+    /**
+     * Codec used for new loan.applications events, "binary" (default) or "json". Consumers read
+     * both, going by the content-type header on each record.
+     */
     @Bean
-    public ProducerFactory<String, String> producerFactory() {
+    public ApplicationEventCodec applicationEventCodec(@Value("${events.codec:binary}") String codec, ObjectMapper objectMapper) {
+        return switch (codec) {
+            case "binary" -> new BinaryApplicationEventCodec();
+            case "json" -> new JsonApplicationEventCodec(objectMapper);
+            default -> throw new IllegalStateException("Unknown events.codec: " + codec);
+        };
+    }
+
+    /**
+     * Producer tuned for throughput: records are held for up to linger.ms to fill batches of up
+     * to batch.size bytes, which are compressed as a whole. Idempotence with acks=all keeps
+     * retries from duplicating or reordering records within a partition.
+     */
+    @Bean
+    public ProducerFactory<String, String> producerFactory(@Value("${kafka.producer.acks:all}") String acks,
+                                                           @Value("${kafka.producer.enable-idempotence:true}") boolean idempotence,
+                                                           @Value("${kafka.producer.linger-ms:10}") int lingerMs,
+                                                           @Value("${kafka.producer.batch-size:65536}") int batchSize,
+                                                           @Value("${kafka.producer.compression-type:lz4}") String compressionType,
+                                                           @Value("${kafka.producer.buffer-memory:33554432}") long bufferMemory,
+                                                           @Value("${kafka.producer.delivery-timeout-ms:120000}") int deliveryTimeoutMs) {
         Map<String, Object> config = new HashMap<>();
-        config.put(ProducerConfig.BOOTSTRAP_SERVERS_CONFIG, "localhost:9092");
+        config.put(ProducerConfig.BOOTSTRAP_SERVERS_CONFIG, bootstrapServers);
         config.put(ProducerConfig.KEY_SERIALIZER_CLASS_CONFIG, StringSerializer.class);
         config.put(ProducerConfig.VALUE_SERIALIZER_CLASS_CONFIG, StringSerializer.class);
+        config.put(ProducerConfig.ACKS_CONFIG, acks);
+        config.put(ProducerConfig.ENABLE_IDEMPOTENCE_CONFIG, idempotence);
+        config.put(ProducerConfig.LINGER_MS_CONFIG, lingerMs);
+        config.put(ProducerConfig.BATCH_SIZE_CONFIG, batchSize);
+        config.put(ProducerConfig.COMPRESSION_TYPE_CONFIG, compressionType);
+        config.put(ProducerConfig.BUFFER_MEMORY_CONFIG, bufferMemory);
+        config.put(ProducerConfig.DELIVERY_TIMEOUT_MS_CONFIG, deliveryTimeoutMs);
         return new DefaultKafkaProducerFactory<>(config);
     }
 
     @Bean
-    public KafkaTemplate<String, String> kafkaTemplate() {
-        return new KafkaTemplate<>(producerFactory());
+    public KafkaTemplate<String, String> kafkaTemplate(ProducerFactory<String, String> producerFactory) {
+        return new KafkaTemplate<>(producerFactory);
     }
 
+    /**
+     * Producer for the outbox relay, which sends events that were already encoded when they were
+     * written to the outbox. Shares the tuned producer settings.
+     */
     @Bean
-    public ConsumerFactory<String, String> consumerFactory() {
+    public ProducerFactory<String, byte[]> eventProducerFactory(ProducerFactory<String, String> producerFactory) {
+        Map<String, Object> config = new HashMap<>(producerFactory.getConfigurationProperties());
+        config.put(ProducerConfig.VALUE_SERIALIZER_CLASS_CONFIG, ByteArraySerializer.class);
+        return new DefaultKafkaProducerFactory<>(config);
+    }
+
+    @Bean
+    public KafkaTemplate<String, byte[]> eventKafkaTemplate(ProducerFactory<String, byte[]> eventProducerFactory) {
+        return new KafkaTemplate<>(eventProducerFactory);
+    }
+
+    /**
+     * Consumer settings shared by all listeners. Offsets are committed by the listeners once a
+     * batch is processed, never automatically, and each poll returns up to max.poll.records,
+     * waiting up to fetch.max.wait.ms for fetch.min.bytes to build up so batches stay large.
+     */
+    private Map<String, Object> consumerConfig() {
         Map<String, Object> config = new HashMap<>();
-        config.put(ConsumerConfig.BOOTSTRAP_SERVERS_CONFIG, "localhost:9092");
-        config.put(ConsumerConfig.KEY_DESERIALIZER_CLASS_CONFIG, StringDeserializer.class);
-        config.put(ConsumerConfig.VALUE_DESERIALIZER_CLASS_CONFIG, StringDeserializer.class);
-        config.put(ConsumerConfig.GROUP_ID_CONFIG, "application-group");
-        return new DefaultKafkaConsumerFactory<>(config);
+        config.put(ConsumerConfig.BOOTSTRAP_SERVERS_CONFIG, bootstrapServers);
+        config.put(ConsumerConfig.GROUP_ID_CONFIG, groupId);
+        config.put(ConsumerConfig.ENABLE_AUTO_COMMIT_CONFIG, false);
+        config.put(ConsumerConfig.MAX_POLL_RECORDS_CONFIG, maxPollRecords);
+        config.put(ConsumerConfig.FETCH_MIN_BYTES_CONFIG, fetchMinBytes);
+        config.put(ConsumerConfig.FETCH_MAX_WAIT_MS_CONFIG, fetchMaxWaitMs);
+        config.put(ConsumerConfig.MAX_PARTITION_FETCH_BYTES_CONFIG, maxPartitionFetchBytes);
+        return config;
     }
 
     @Bean
-    public ConcurrentKafkaListenerContainerFactory<String, String> kafkaListenerContainerFactory() {
+    public ConsumerFactory<String, String> consumerFactory(MeterRegistry meterRegistry) {
+        DefaultKafkaConsumerFactory<String, String> factory =
+                new DefaultKafkaConsumerFactory<>(consumerConfig(), new StringDeserializer(), new StringDeserializer());
+        // Exposes the client metrics, e.g. kafka.consumer.fetch.manager.records.lag.max
+        factory.addListener(new MicrometerConsumerListener<>(meterRegistry));
+        return factory;
+    }
+
+    /**
+     * Batch listeners with manual acknowledgement: a listener acknowledges once the whole batch
+     * is processed. A batch that fails is redelivered with a growing back-off until it succeeds;
+     * it is never skipped, so a listener that cannot get past a batch holds up its partitions.
+     */
+    @Bean
+    public ConcurrentKafkaListenerContainerFactory<String, String> kafkaListenerContainerFactory(ConsumerFactory<String, String> consumerFactory) {
         ConcurrentKafkaListenerContainerFactory<String, String> factory = new ConcurrentKafkaListenerContainerFactory<>();
-        factory.setConsumerFactory(consumerFactory());
+        configureBatchListeners(factory, consumerFactory);
+        return factory;
+    }
+
+    @Bean
+    public ConsumerFactory<String, ApplicationEvent> applicationEventConsumerFactory(MeterRegistry meterRegistry,
+                                                                                     ObjectMapper objectMapper) {
+        ApplicationEventDeserializer deserializer = new ApplicationEventDeserializer(new BinaryApplicationEventCodec(),
+                List.of(new BinaryApplicationEventCodec(), new JsonApplicationEventCodec(objectMapper)));
+        // A record that cannot be decoded reaches the listener with a null value instead of
+        // failing every poll of its partition
+        DefaultKafkaConsumerFactory<String, ApplicationEvent> factory = new DefaultKafkaConsumerFactory<>(consumerConfig(),
+                new StringDeserializer(), new ErrorHandlingDeserializer<>(deserializer));
+        factory.addListener(new MicrometerConsumerListener<>(meterRegistry));
         return factory;
     }
-}
\ No newline at end of file
+
+    @Bean
+    public ConcurrentKafkaListenerContainerFactory<String, ApplicationEvent> applicationEventListenerContainerFactory(
+            ConsumerFactory<String, ApplicationEvent> applicationEventConsumerFactory) {
+        ConcurrentKafkaListenerContainerFactory<String, ApplicationEvent> factory = new ConcurrentKafkaListenerContainerFactory<>();
+        configureBatchListeners(factory, applicationEventConsumerFactory);
+        return factory;
+    }
+
+    /**
+     * Record listeners for the retry tiers, one container per tier. A record that is not yet due
+     * is nacked for the rest of its delay, which pauses every partition of its consumer; records
+     * behind it in the same tier are due no earlier, so only a consumer holding several partitions
+     * of a tier waits longer than needed. Failures to hand a record on are redelivered like batches.
+     */
+    @Bean
+    public ConcurrentKafkaListenerContainerFactory<String, ApplicationEvent> applicationEventRetryListenerContainerFactory(
+            ConsumerFactory<String, ApplicationEvent> applicationEventConsumerFactory) {
+        ConcurrentKafkaListenerContainerFactory<String, ApplicationEvent> factory = new ConcurrentKafkaListenerContainerFactory<>();
+        factory.setConsumerFactory(applicationEventConsumerFactory);
+        factory.getContainerProperties().setAckMode(ContainerProperties.AckMode.MANUAL);
+        factory.setCommonErrorHandler(new DefaultErrorHandler(redeliveryBackOff()));
+        return factory;
+    }
+
+    /**
+     * The dead-letter topic is read as raw bytes: its records are stored for inspection as they
+     * are, including the ones that could not be decoded in the first place.
+     */
+    @Bean
+    public ConsumerFactory<String, byte[]> deadLetterConsumerFactory(MeterRegistry meterRegistry) {
+        DefaultKafkaConsumerFactory<String, byte[]> factory = new DefaultKafkaConsumerFactory<>(consumerConfig(),
+                new StringDeserializer(), new ByteArrayDeserializer());
+        factory.addListener(new MicrometerConsumerListener<>(meterRegistry));
+        return factory;
+    }
+
+    @Bean
+    public ConcurrentKafkaListenerContainerFactory<String, byte[]> deadLetterListenerContainerFactory(
+            ConsumerFactory<String, byte[]> deadLetterConsumerFactory) {
+        ConcurrentKafkaListenerContainerFactory<String, byte[]> factory = new ConcurrentKafkaListenerContainerFactory<>();
+        configureBatchListeners(factory, deadLetterConsumerFactory);
+        return factory;
+    }
+
+    /**
+     * loan.applications with its retry tiers and dead-letter topic, created at startup if missing.
+     */
+    @Bean
+    public KafkaAdmin.NewTopics applicationEventTopics(@Value("${kafka.topics.partitions:3}") int partitions) {
+        List<NewTopic> topics = new ArrayList<>();
+        topics.add(TopicBuilder.name(ApplicationEventRetryRouter.TOPIC).partitions(partitions).build());
+        for (ApplicationEventRetryRouter.Tier tier : ApplicationEventRetryRouter.TIERS) {
+            topics.add(TopicBuilder.name(tier.topic()).partitions(partitions).build());
+        }
+        topics.add(TopicBuilder.name(ApplicationEventRetryRouter.DEAD_LETTER_TOPIC).partitions(partitions).build());
+        return new KafkaAdmin.NewTopics(topics.toArray(NewTopic[]::new));
+    }
+
+    private static <V> void configureBatchListeners(ConcurrentKafkaListenerContainerFactory<String, V> factory,
+                                                    ConsumerFactory<String, V> consumerFactory) {
+        factory.setConsumerFactory(consumerFactory);
+        factory.setBatchListener(true);
+        factory.getContainerProperties().setAckMode(ContainerProperties.AckMode.MANUAL);
+        factory.setCommonErrorHandler(new DefaultErrorHandler(redeliveryBackOff()));
+    }
+
+    // No attempt or elapsed-time limit: giving up would commit the failed records unprocessed
+    private static ExponentialBackOff redeliveryBackOff() {
+        ExponentialBackOff backOff = new ExponentialBackOff(1000L, 2.0);
+        backOff.setMaxInterval(30_000L);
+        return backOff;
+    }
+}
@@ -0,0 +1,50 @@
+package com.hfgroup.mortgage.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Token-bucket limits bound from security.rate-limit.*.
+ * Login is limited per client IP and per username before any password check runs;
+ * other routes are limited per caller, with optional overrides per role.
+ */
+@Data
+@ConfigurationProperties(prefix = "security.rate-limit")
+public class RateLimitProperties {
+
+    private boolean enabled = true;
+    private int maxKeys = 100_000;
+    private int stripes = 64;
+    private Login login = new Login();
+    private Map<String, Route> routes = new LinkedHashMap<>();
+
+    @Data
+    public static class Login {
+        private Limit perIp = new Limit(20, 20);
+        private Limit perUsername = new Limit(5, 5);
+    }
+
+    @Data
+    public static class Route {
+        private String pattern;
+        private Limit defaultLimit = new Limit(120, 600);
+        private Map<String, Limit> roles = new LinkedHashMap<>();
+    }
+
+    @Data
+    public static class Limit {
+        private long capacity;
+        private double refillPerMinute;
+
+        public Limit() {
+        }
+
+        public Limit(long capacity, double refillPerMinute) {
+            this.capacity = capacity;
+            this.refillPerMinute = refillPerMinute;
+        }
+    }
+}
@@ -2,16 +2,34 @@ package com.hfgroup.mortgage.controller;
 
 import com.hfgroup.mortgage.dto.request.ApplicationDTO;
 import com.hfgroup.mortgage.dto.request.ApplicationFilterDTO;
+import com.hfgroup.mortgage.dto.request.ApplicationUpdateDTO;
+import com.hfgroup.mortgage.dto.request.BulkDecisionDTO;
 import com.hfgroup.mortgage.dto.request.DecisionDTO;
+import com.hfgroup.mortgage.dto.response.ApplicationView;
+import com.hfgroup.mortgage.dto.response.BatchResultDTO;
+import com.hfgroup.mortgage.dto.response.BulkDecisionResultDTO;
+import com.hfgroup.mortgage.dto.response.CursorPageDTO;
+import com.hfgroup.mortgage.dto.response.Versioned;
 import com.hfgroup.mortgage.model.Application;
 import com.hfgroup.mortgage.model.Decision;
+import com.hfgroup.mortgage.security.UserPrincipal;
+import com.hfgroup.mortgage.service.ApplicationBatchService;
+import com.hfgroup.mortgage.service.ApplicationExportService;
 import com.hfgroup.mortgage.service.ApplicationService;
 import com.hfgroup.mortgage.service.S3Service;
+import jakarta.servlet.http.HttpServletRequest;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.data.domain.Page;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.security.core.annotation.AuthenticationPrincipal;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
+import java.io.IOException;
 import java.net.URL;
 import java.time.Duration;
 import java.time.LocalDateTime;
@@ -20,16 +38,27 @@ import java.time.format.DateTimeParseException;
 import java.util.List;
 import java.util.UUID;
 import java.util.stream.Collectors;
+import java.util.zip.GZIPOutputStream;
 
 @RestController
 @RequestMapping("/api/v1/applications")
 public class ApplicationController {
     private final ApplicationService applicationService;
     private final S3Service s3Service;
+    private final ApplicationExportService applicationExportService;
+    private final ApplicationBatchService applicationBatchService;
+    private final int maxBatchItems;
+    private final int maxBulkDecisions;
 
-    public ApplicationController(ApplicationService applicationService, S3Service s3Service) {
+    public ApplicationController(ApplicationService applicationService, S3Service s3Service, ApplicationExportService applicationExportService,
+                                 ApplicationBatchService applicationBatchService, @Value("${applications.batch.max-items:10000}") int maxBatchItems,
+                                 @Value("${applications.bulk-decision.max-items:1000}") int maxBulkDecisions) {
         this.applicationService = applicationService;
         this.s3Service = s3Service;
+        this.applicationExportService = applicationExportService;
+        this.applicationBatchService = applicationBatchService;
+        this.maxBatchItems = maxBatchItems;
+        this.maxBulkDecisions = maxBulkDecisions;
     }
 
     @PostMapping
@@ -58,89 +87,313 @@ public class ApplicationController {
     }
 
 
+    /**
+     * Bulk ingestion for partner files. Documents must already be uploaded and referenced by
+     * presignedUrl. Valid items are created even when others in the batch are rejected.
+     */
+    @PostMapping(value = "/batch", consumes = MediaType.APPLICATION_JSON_VALUE)
+    @PreAuthorize("hasRole('OFFICER')")
+    public ResponseEntity<BatchResultDTO> createApplicationsBatch(@RequestBody List<ApplicationDTO> applications) {
+        if (applications.size() > maxBatchItems) {
+            return ResponseEntity.status(HttpStatus.PAYLOAD_TOO_LARGE).build();
+        }
+        return ResponseEntity.ok(applicationBatchService.ingest(applications));
+    }
+
+    /**
+     * JSON lines variant of the bulk ingestion, read and inserted chunk by chunk as the body
+     * arrives, for files too large to send as one JSON array. Limited to the same number of items;
+     * a longer body is answered with 413 listing what was created from the lines before the limit.
+     */
+    @PostMapping(value = "/batch", consumes = "application/x-ndjson")
+    @PreAuthorize("hasRole('OFFICER')")
+    public ResponseEntity<BatchResultDTO> createApplicationsBatchStream(HttpServletRequest request) throws IOException {
+        BatchResultDTO result = applicationBatchService.ingestJsonLines(request.getReader(), maxBatchItems);
+        return result.isTruncated() ? ResponseEntity.status(HttpStatus.PAYLOAD_TOO_LARGE).body(result) : ResponseEntity.ok(result);
+    }
+
     @GetMapping("/{id}")
     @PreAuthorize("hasAnyRole('APPLICANT', 'OFFICER')")
-    public ResponseEntity<Application> getApplicationById(@PathVariable UUID id) {
+    public ResponseEntity<ApplicationView> getApplicationById(@PathVariable UUID id) {
+        // The ETag is the application version; Spring answers a matching If-None-Match with 304
         return applicationService.getApplicationById(id)
-                .map(ResponseEntity::ok)
+                .map(application -> ResponseEntity.ok()
+                        .eTag(String.valueOf(application.version()))
+                        .body(application))
                 .orElse(ResponseEntity.notFound().build());
     }
 
+    /**
+     * Lets an applicant edit a PENDING application. Send the ETag from the last read as If-Match
+     * to edit that version only; a 409 then carries the current version. Without If-Match the
+     * edit is applied on top of concurrent changes.
+     */
+    @PatchMapping("/{id}")
+    @PreAuthorize("hasRole('APPLICANT')")
+    public ResponseEntity<ApplicationView> updateApplication(
+            @PathVariable UUID id,
+            @RequestBody ApplicationUpdateDTO updateDTO,
+            @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch,
+            @AuthenticationPrincipal UserPrincipal principal) {
+        if (updateDTO.getAmount() != null && updateDTO.getAmount() <= 0
+                || updateDTO.getNationalId() != null && (updateDTO.getNationalId().isBlank() || updateDTO.getNationalId().length() > 20)) {
+            return ResponseEntity.badRequest().build();
+        }
+        Long expectedVersion;
+        try {
+            expectedVersion = parseIfMatch(ifMatch);
+        } catch (NumberFormatException e) {
+            return ResponseEntity.status(HttpStatus.PRECONDITION_FAILED).build();
+        }
+
+        ApplicationView application = applicationService.updateApplication(id, updateDTO, principal.getId(), expectedVersion);
+        return ResponseEntity.ok()
+                .eTag(String.valueOf(application.version()))
+                .body(application);
+    }
+
     @GetMapping
     @PreAuthorize("hasAnyRole('APPLICANT', 'OFFICER')")
-    public ResponseEntity<Page<Application>> getApplications(
+    public ResponseEntity<Page<ApplicationView>> getApplications(
             @RequestParam(required = false) String status,
             @RequestParam(required = false) String nationalId,
+            @RequestParam(required = false) UUID applicantId,
+            @RequestParam(required = false) Double minAmount,
+            @RequestParam(required = false) Double maxAmount,
             @RequestParam(required = false) String createdFrom,
             @RequestParam(required = false) String createdTo,
             @RequestParam(defaultValue = "0") Integer page,
             @RequestParam(defaultValue = "20") Integer size) {
         
-        LocalDateTime fromDate = null;
-        LocalDateTime toDate = null;
-        
-        // Parse date parameters with proper error handling
-        if (createdFrom != null && !createdFrom.trim().isEmpty()) {
-            try {
-                // Try to parse as LocalDateTime first
-                fromDate = LocalDateTime.parse(createdFrom, DateTimeFormatter.ISO_LOCAL_DATE_TIME);
-            } catch (DateTimeParseException e) {
-                try {
-                    // If that fails, try to parse as LocalDate and convert to start of day
-                    fromDate = java.time.LocalDate.parse(createdFrom, DateTimeFormatter.ISO_LOCAL_DATE)
-                            .atStartOfDay();
-                } catch (DateTimeParseException e2) {
-                    return ResponseEntity.badRequest().build();
-                }
-            }
-        }
-        
-        if (createdTo != null && !createdTo.trim().isEmpty()) {
-            try {
-                // Try to parse as LocalDateTime first
-                toDate = LocalDateTime.parse(createdTo, DateTimeFormatter.ISO_LOCAL_DATE_TIME);
-            } catch (DateTimeParseException e) {
-                try {
-                    // If that fails, try to parse as LocalDate and convert to end of day
-                    toDate = java.time.LocalDate.parse(createdTo, DateTimeFormatter.ISO_LOCAL_DATE)
-                            .atTime(23, 59, 59, 999999999);
-                } catch (DateTimeParseException e2) {
-                    return ResponseEntity.badRequest().build();
-                }
-            }
+        LocalDateTime fromDate;
+        LocalDateTime toDate;
+        try {
+            fromDate = parseDate(createdFrom, false);
+            toDate = parseDate(createdTo, true);
+        } catch (DateTimeParseException e) {
+            return ResponseEntity.badRequest().build();
         }
         
         ApplicationFilterDTO filterDTO = ApplicationFilterDTO.builder()
                 .status(status)
                 .nationalId(nationalId)
+                .applicantId(applicantId)
+                .minAmount(minAmount)
+                .maxAmount(maxAmount)
                 .createdFrom(fromDate)
                 .createdTo(toDate)
                 .page(page)
                 .size(size)
                 .build();
         
-        Page<Application> applications = applicationService.getApplicationsWithFilters(filterDTO);
+        Page<ApplicationView> applications = applicationService.getApplicationsWithFilters(filterDTO);
         return ResponseEntity.ok(applications);
     }
+
+    /**
+     * Keyset variant of the listing, selected with ?pagination=keyset. Pass the returned nextCursor
+     * back as ?cursor= to get the following page; includeTotal=true adds an approximate total.
+     */
+    @GetMapping(params = "pagination=keyset")
+    @PreAuthorize("hasAnyRole('APPLICANT', 'OFFICER')")
+    public ResponseEntity<CursorPageDTO<ApplicationView>> getApplicationsKeyset(
+            @RequestParam(required = false) String status,
+            @RequestParam(required = false) String nationalId,
+            @RequestParam(required = false) UUID applicantId,
+            @RequestParam(required = false) Double minAmount,
+            @RequestParam(required = false) Double maxAmount,
+            @RequestParam(required = false) String createdFrom,
+            @RequestParam(required = false) String createdTo,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "false") boolean includeTotal,
+            @RequestParam(defaultValue = "20") Integer size) {
+
+        LocalDateTime fromDate;
+        LocalDateTime toDate;
+        try {
+            fromDate = parseDate(createdFrom, false);
+            toDate = parseDate(createdTo, true);
+        } catch (DateTimeParseException e) {
+            return ResponseEntity.badRequest().build();
+        }
+
+        ApplicationFilterDTO filterDTO = ApplicationFilterDTO.builder()
+                .status(status)
+                .nationalId(nationalId)
+                .applicantId(applicantId)
+                .minAmount(minAmount)
+                .maxAmount(maxAmount)
+                .createdFrom(fromDate)
+                .createdTo(toDate)
+                .size(size)
+                .build();
+
+        return ResponseEntity.ok(applicationService.getApplicationsKeyset(filterDTO, cursor, includeTotal));
+    }
     
+    /**
+     * The authenticated applicant's own applications, newest first, with keyset pagination.
+     */
+    @GetMapping("/mine")
+    @PreAuthorize("hasRole('APPLICANT')")
+    public ResponseEntity<CursorPageDTO<ApplicationView>> getMyApplications(
+            @RequestParam(required = false) String status,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "20") Integer size,
+            @AuthenticationPrincipal UserPrincipal principal) {
+
+        ApplicationFilterDTO filterDTO = ApplicationFilterDTO.builder()
+                .applicantId(principal.getId())
+                .status(status)
+                .size(size)
+                .build();
+        return ResponseEntity.ok(applicationService.getApplicationsKeyset(filterDTO, cursor, false));
+    }
+
     @GetMapping("/all")
     @PreAuthorize("hasRole('OFFICER')")
-    public ResponseEntity<Page<Application>> getAllApplications(
+    public ResponseEntity<Page<ApplicationView>> getAllApplications(
             @RequestParam(defaultValue = "0") Integer page,
             @RequestParam(defaultValue = "20") Integer size) {
         
-        Page<Application> applications = applicationService.getAllApplications(page, size);
+        Page<ApplicationView> applications = applicationService.getAllApplications(page, size);
         return ResponseEntity.ok(applications);
     }
 
+    @GetMapping(value = "/all", params = "pagination=keyset")
+    @PreAuthorize("hasRole('OFFICER')")
+    public ResponseEntity<CursorPageDTO<ApplicationView>> getAllApplicationsKeyset(
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "false") boolean includeTotal,
+            @RequestParam(defaultValue = "20") Integer size) {
+
+        ApplicationFilterDTO filterDTO = ApplicationFilterDTO.builder().size(size).build();
+        return ResponseEntity.ok(applicationService.getApplicationsKeyset(filterDTO, cursor, includeTotal));
+    }
+
+    /**
+     * Streams every application matching the filters as NDJSON (default) or CSV from a single
+     * database cursor, optionally gzip-compressed. Intended for reporting jobs instead of paging.
+     */
+    @GetMapping("/export")
+    @PreAuthorize("hasRole('OFFICER')")
+    public ResponseEntity<StreamingResponseBody> exportApplications(
+            @RequestParam(required = false) String status,
+            @RequestParam(required = false) String nationalId,
+            @RequestParam(required = false) UUID applicantId,
+            @RequestParam(required = false) Double minAmount,
+            @RequestParam(required = false) Double maxAmount,
+            @RequestParam(required = false) String createdFrom,
+            @RequestParam(required = false) String createdTo,
+            @RequestParam(defaultValue = "ndjson") String format,
+            @RequestParam(defaultValue = "false") boolean gzip) {
+
+        ApplicationExportService.Format exportFormat;
+        LocalDateTime fromDate;
+        LocalDateTime toDate;
+        try {
+            exportFormat = ApplicationExportService.Format.valueOf(format.trim().toUpperCase());
+            fromDate = parseDate(createdFrom, false);
+            toDate = parseDate(createdTo, true);
+        } catch (IllegalArgumentException | DateTimeParseException e) {
+            return ResponseEntity.badRequest().build();
+        }
+
+        ApplicationFilterDTO filterDTO = ApplicationFilterDTO.builder()
+                .status(status)
+                .nationalId(nationalId)
+                .applicantId(applicantId)
+                .minAmount(minAmount)
+                .maxAmount(maxAmount)
+                .createdFrom(fromDate)
+                .createdTo(toDate)
+                .build();
+
+        StreamingResponseBody body = out -> {
+            if (gzip) {
+                GZIPOutputStream compressed = new GZIPOutputStream(out, 64 * 1024);
+                applicationExportService.export(filterDTO, exportFormat, compressed);
+                compressed.finish();
+            } else {
+                applicationExportService.export(filterDTO, exportFormat, out);
+            }
+        };
+
+        ResponseEntity.BodyBuilder response = ResponseEntity.ok()
+                .contentType(MediaType.parseMediaType(exportFormat.getContentType()))
+                .header(HttpHeaders.CONTENT_DISPOSITION,
+                        "attachment; filename=\"applications." + exportFormat.getExtension() + (gzip ? ".gz\"" : "\""));
+        if (gzip) {
+            response.header(HttpHeaders.CONTENT_ENCODING, "gzip");
+        }
+        return response.body(body);
+    }
+
+    /**
+     * Applies many decisions in one transaction and reports, per application, whether the
+     * decision was applied, the application was already decided, or it does not exist.
+     */
+    @PostMapping("/decisions")
+    @PreAuthorize("hasRole('OFFICER')")
+    public ResponseEntity<BulkDecisionResultDTO> createDecisions(
+            @RequestBody BulkDecisionDTO bulkDecisionDTO,
+            @AuthenticationPrincipal UserPrincipal principal) {
+        if (bulkDecisionDTO.getDecisions() == null || bulkDecisionDTO.getDecisions().isEmpty()
+                || bulkDecisionDTO.getDecisions().size() > maxBulkDecisions) {
+            return ResponseEntity.badRequest().build();
+        }
+        return ResponseEntity.ok(applicationService.createDecisions(bulkDecisionDTO, principal.getId()));
+    }
+
     @PatchMapping("/{id}/decision")
     @PreAuthorize("hasRole('OFFICER')")
     public ResponseEntity<Decision> createDecision(
             @PathVariable UUID id,
             @RequestBody DecisionDTO decisionDTO,
-            @RequestHeader("Authorization") String authorizationHeader
+            @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch,
+            @AuthenticationPrincipal UserPrincipal principal
             ) {
-        Decision decision = applicationService.createDecision(id, decisionDTO, authorizationHeader);
-        return ResponseEntity.ok(decision);
+        Long expectedVersion;
+        try {
+            expectedVersion = parseIfMatch(ifMatch);
+        } catch (NumberFormatException e) {
+            return ResponseEntity.status(HttpStatus.PRECONDITION_FAILED).build();
+        }
+        Versioned<Decision> decision = applicationService.createDecision(id, decisionDTO, principal.getId(), expectedVersion);
+        return ResponseEntity.ok()
+                .eTag(String.valueOf(decision.version()))
+                .body(decision.body());
+    }
+
+    /**
+     * Parses an ISO date-time, or a plain ISO date taken as the start (or end) of that day.
+     * @return null if the parameter is absent.
+     */
+    private LocalDateTime parseDate(String value, boolean endOfDay) {
+        if (value == null || value.trim().isEmpty()) {
+            return null;
+        }
+        try {
+            return LocalDateTime.parse(value, DateTimeFormatter.ISO_LOCAL_DATE_TIME);
+        } catch (DateTimeParseException e) {
+            java.time.LocalDate date = java.time.LocalDate.parse(value, DateTimeFormatter.ISO_LOCAL_DATE);
+            return endOfDay ? date.atTime(23, 59, 59, 999999999) : date.atStartOfDay();
+        }
+    }
+
+    /**
+     * Reads the version out of an If-Match header such as "3" or W/"3".
+     * @return null if the header is absent or "*".
+     * @throws NumberFormatException if the tag is not one of ours.
+     */
+    private Long parseIfMatch(String ifMatch) {
+        if (ifMatch == null || ifMatch.isBlank() || ifMatch.trim().equals("*")) {
+            return null;
+        }
+        String tag = ifMatch.trim();
+        if (tag.startsWith("W/")) {
+            tag = tag.substring(2);
+        }
+        return Long.parseLong(tag.replace("\"", ""));
     }
 }
@@ -2,11 +2,14 @@ package com.hfgroup.mortgage.controller;
 
 import com.hfgroup.mortgage.dto.request.LoginRequestDTO;
 import com.hfgroup.mortgage.dto.response.LoginResponseDTO;
+import com.hfgroup.mortgage.security.RateLimiterRegistry;
 import com.hfgroup.mortgage.service.AuthService;
+import jakarta.servlet.http.HttpServletRequest;
 import lombok.RequiredArgsConstructor;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestHeader;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RestController;
 
@@ -18,10 +21,20 @@ import jakarta.validation.Valid;
 public class AuthController {
 
     private final AuthService authService;
+    private final RateLimiterRegistry rateLimiterRegistry;
 
     @PostMapping("/login")
-    public ResponseEntity<LoginResponseDTO> login(@Valid @RequestBody LoginRequestDTO loginRequest) {
+    public ResponseEntity<LoginResponseDTO> login(@Valid @RequestBody LoginRequestDTO loginRequest,
+                                                  HttpServletRequest request) {
+        // Reject floods before any BCrypt work is done
+        rateLimiterRegistry.checkLogin(request.getRemoteAddr(), loginRequest.getUsername());
         LoginResponseDTO response = authService.login(loginRequest);
         return ResponseEntity.ok(response);
     }
+
+    @PostMapping("/logout")
+    public ResponseEntity<Void> logout(@RequestHeader("Authorization") String authorizationHeader) {
+        authService.logout(authorizationHeader.replace("Bearer ", ""));
+        return ResponseEntity.noContent().build();
+    }
 }
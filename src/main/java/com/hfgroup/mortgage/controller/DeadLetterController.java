@@ -0,0 +1,53 @@
+package com.hfgroup.mortgage.controller;
+
+import com.hfgroup.mortgage.dto.request.DeadLetterReplayDTO;
+import com.hfgroup.mortgage.dto.response.CursorPageDTO;
+import com.hfgroup.mortgage.dto.response.DeadLetterView;
+import com.hfgroup.mortgage.service.DeadLetterService;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.web.bind.annotation.*;
+
+import java.util.Map;
+
+@RestController
+@RequestMapping("/api/v1/admin/dead-letters")
+public class DeadLetterController {
+    private final DeadLetterService deadLetterService;
+    private final int maxReplayItems;
+
+    public DeadLetterController(DeadLetterService deadLetterService,
+                                @Value("${events.dead-letter.max-replay-items:1000}") int maxReplayItems) {
+        this.deadLetterService = deadLetterService;
+        this.maxReplayItems = maxReplayItems;
+    }
+
+    /**
+     * Lists dead-lettered loan.applications events oldest first. Pass nextCursor back as
+     * ?afterId= for the following page; replayed entries are hidden unless includeReplayed=true.
+     */
+    @GetMapping
+    @PreAuthorize("hasRole('OFFICER')")
+    public ResponseEntity<CursorPageDTO<DeadLetterView>> getDeadLetters(
+            @RequestParam(required = false) Long afterId,
+            @RequestParam(defaultValue = "50") int limit,
+            @RequestParam(defaultValue = "false") boolean includeReplayed) {
+        if (limit < 1 || limit > 500) {
+            return ResponseEntity.badRequest().build();
+        }
+        return ResponseEntity.ok(deadLetterService.getDeadLetters(afterId, limit, includeReplayed));
+    }
+
+    /**
+     * Republishes the given dead letters to loan.applications through the outbox.
+     */
+    @PostMapping("/replay")
+    @PreAuthorize("hasRole('OFFICER')")
+    public ResponseEntity<Map<String, Integer>> replay(@RequestBody DeadLetterReplayDTO replayDTO) {
+        if (replayDTO.getIds() == null || replayDTO.getIds().isEmpty() || replayDTO.getIds().size() > maxReplayItems) {
+            return ResponseEntity.badRequest().build();
+        }
+        return ResponseEntity.ok(Map.of("replayed", deadLetterService.replay(replayDTO.getIds())));
+    }
+}
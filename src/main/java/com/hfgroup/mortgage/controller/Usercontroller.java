@@ -1,6 +1,7 @@
 package com.hfgroup.mortgage.controller;
 
 import com.hfgroup.mortgage.dto.request.UserRegistrationDTO;
+import com.hfgroup.mortgage.dto.request.UserRolesUpdateDTO;
 import com.hfgroup.mortgage.dto.response.UserResponseDTO;
 import com.hfgroup.mortgage.service.UserService;
 import lombok.RequiredArgsConstructor;
@@ -24,6 +25,19 @@ public class Usercontroller {
         return ResponseEntity.status(HttpStatus.CREATED).body(createdUser);
     }
     
+    @PatchMapping("/{userId}/roles")
+    public ResponseEntity<UserResponseDTO> updateRoles(@PathVariable String userId,
+                                                       @Valid @RequestBody UserRolesUpdateDTO rolesUpdateDTO) {
+        UserResponseDTO updatedUser = userService.updateRoles(userId, rolesUpdateDTO);
+        return ResponseEntity.ok(updatedUser);
+    }
+
+    @PostMapping("/{userId}/tokens/revoke")
+    public ResponseEntity<Void> revokeTokens(@PathVariable String userId) {
+        userService.revokeTokens(userId);
+        return ResponseEntity.noContent().build();
+    }
+    
     @GetMapping("/{userId}")
     public ResponseEntity<UserResponseDTO> getUserById(@PathVariable String userId) {
         UserResponseDTO user = userService.getUserById(userId);
@@ -3,6 +3,7 @@ package com.hfgroup.mortgage.dto.request;
 import lombok.*;
 
 import java.time.LocalDateTime;
+import java.util.UUID;
 
 @Getter
 @Setter
@@ -12,8 +13,11 @@ import java.time.LocalDateTime;
 public class ApplicationFilterDTO {
     private String status;
     private String nationalId;
+    private UUID applicantId;
     private LocalDateTime createdFrom;
     private LocalDateTime createdTo;
+    private Double minAmount;
+    private Double maxAmount;
     private Integer page = 0;
     private Integer size = 20;
 } 
\ No newline at end of file
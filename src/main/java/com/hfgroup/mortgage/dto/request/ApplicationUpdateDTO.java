@@ -0,0 +1,14 @@
+package com.hfgroup.mortgage.dto.request;
+
+import lombok.*;
+
+@Getter
+@Setter
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class ApplicationUpdateDTO {
+    // Only the fields that are set are changed
+    private String nationalId;
+    private Double amount;
+}
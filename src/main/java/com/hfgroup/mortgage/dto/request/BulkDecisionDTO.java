@@ -0,0 +1,26 @@
+package com.hfgroup.mortgage.dto.request;
+
+import lombok.*;
+
+import java.util.List;
+import java.util.UUID;
+
+@Getter
+@Setter
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class BulkDecisionDTO {
+    private List<Item> decisions;
+
+    @Getter
+    @Setter
+    @Builder
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class Item {
+        private UUID applicationId;
+        private String decision; // APPROVED or REJECTED
+        private String comment;
+    }
+}
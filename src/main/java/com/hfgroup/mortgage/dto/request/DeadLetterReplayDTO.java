@@ -0,0 +1,14 @@
+package com.hfgroup.mortgage.dto.request;
+
+import lombok.*;
+
+import java.util.List;
+
+@Getter
+@Setter
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class DeadLetterReplayDTO {
+    private List<Long> ids;
+}
@@ -0,0 +1,11 @@
+package com.hfgroup.mortgage.dto.request;
+
+import jakarta.validation.constraints.NotBlank;
+import lombok.Data;
+
+@Data
+public class UserRolesUpdateDTO {
+
+    @NotBlank(message = "Roles are required")
+    private String roles;
+}
@@ -0,0 +1,33 @@
+package com.hfgroup.mortgage.dto.response;
+
+import com.hfgroup.mortgage.model.Application;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * Read model of an application as returned by the list and detail endpoints. Built from already
+ * loaded rows, so rendering it to JSON never touches a lazy association.
+ */
+public record ApplicationView(
+        UUID id,
+        UUID applicantId,
+        String nationalId,
+        Double amount,
+        String status,
+        LocalDateTime createdAt,
+        LocalDateTime updatedAt,
+        long version,
+        List<DocumentView> documents) {
+
+    public ApplicationView {
+        documents = documents == null ? List.of() : List.copyOf(documents);
+    }
+
+    public static ApplicationView from(Application application, List<DocumentView> documents) {
+        return new ApplicationView(application.getId(), application.getApplicantId(), application.getNationalId(),
+                application.getAmount(), application.getStatus(), application.getCreatedAt(),
+                application.getUpdatedAt(), application.getVersion() == null ? 0 : application.getVersion(), documents);
+    }
+}
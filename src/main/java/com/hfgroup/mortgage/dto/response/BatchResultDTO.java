@@ -0,0 +1,29 @@
+package com.hfgroup.mortgage.dto.response;
+
+import lombok.Data;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * Outcome of a bulk ingestion. Indexes refer to the position of the item in the request
+ * (the line number, counting from 0 and skipping blank lines, for JSON lines). truncated is set
+ * when a JSON lines body had more items than allowed; the lines past the limit were not read.
+ */
+@Data
+public class BatchResultDTO {
+
+    private int received;
+    private int created;
+    private int failed;
+    private boolean truncated;
+    private List<CreatedItem> createdItems = new ArrayList<>();
+    private List<FailedItem> errors = new ArrayList<>();
+
+    public record CreatedItem(int index, UUID id) {
+    }
+
+    public record FailedItem(int index, String error) {
+    }
+}
@@ -0,0 +1,28 @@
+package com.hfgroup.mortgage.dto.response;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * Per-application outcome of a bulk decision, in request order.
+ */
+@Data
+@AllArgsConstructor
+public class BulkDecisionResultDTO {
+
+    private int applied;
+    private List<Outcome> results;
+
+    public enum Status {
+        APPLIED,
+        ALREADY_DECIDED,
+        NOT_FOUND,
+        INVALID
+    }
+
+    public record Outcome(UUID applicationId, Status status, UUID decisionId, String error) {
+    }
+}
@@ -0,0 +1,20 @@
+package com.hfgroup.mortgage.dto.response;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+
+import java.util.List;
+
+/**
+ * One page of a keyset-paginated listing. nextCursor is null on the last page; approximateTotal
+ * is only filled in when the caller asked for it.
+ */
+@Data
+@AllArgsConstructor
+public class CursorPageDTO<T> {
+
+    private List<T> content;
+    private int size;
+    private String nextCursor;
+    private Long approximateTotal;
+}
@@ -0,0 +1,25 @@
+package com.hfgroup.mortgage.dto.response;
+
+import com.hfgroup.mortgage.event.ApplicationEvent;
+
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+/**
+ * A loan.applications event that exhausted its retries, as listed by the dead-letter endpoints.
+ * event is null when the stored payload cannot be decoded.
+ */
+public record DeadLetterView(
+        long id,
+        String originalTopic,
+        Integer originalPartition,
+        Long originalOffset,
+        String key,
+        UUID eventId,
+        String contentType,
+        int attempts,
+        String error,
+        LocalDateTime failedAt,
+        LocalDateTime replayedAt,
+        ApplicationEvent event) {
+}
@@ -0,0 +1,24 @@
+package com.hfgroup.mortgage.dto.response;
+
+import com.hfgroup.mortgage.model.Document;
+
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+/**
+ * Read model of a document as returned by the application endpoints.
+ */
+public record DocumentView(
+        UUID id,
+        UUID applicationId,
+        String fileName,
+        String fileType,
+        long size,
+        String url,
+        LocalDateTime createdAt) {
+
+    public static DocumentView from(Document document, UUID applicationId) {
+        return new DocumentView(document.getId(), applicationId, document.getFileName(), document.getFileType(),
+                document.getSize(), document.getUrl(), document.getCreatedAt());
+    }
+}
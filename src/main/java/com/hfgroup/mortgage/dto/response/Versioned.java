@@ -0,0 +1,7 @@
+package com.hfgroup.mortgage.dto.response;
+
+/**
+ * A response body together with the application version it leaves behind, sent as the ETag.
+ */
+public record Versioned<T>(T body, long version) {
+}
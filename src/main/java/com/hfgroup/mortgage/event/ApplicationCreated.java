@@ -0,0 +1,34 @@
+package com.hfgroup.mortgage.event;
+
+import com.hfgroup.mortgage.dto.response.ApplicationView;
+
+import java.time.Instant;
+import java.time.temporal.ChronoUnit;
+import java.util.List;
+import java.util.UUID;
+
+public record ApplicationCreated(
+        UUID eventId,
+        Instant occurredAt,
+        UUID applicationId,
+        UUID applicantId,
+        String nationalId,
+        Double amount,
+        String status,
+        List<Document> documents) implements ApplicationEvent {
+
+    public ApplicationCreated {
+        documents = documents == null ? List.of() : List.copyOf(documents);
+    }
+
+    public record Document(UUID id, String fileName, String fileType, long size, String url) {
+    }
+
+    public static ApplicationCreated from(ApplicationView application) {
+        return new ApplicationCreated(UUID.randomUUID(), Instant.now().truncatedTo(ChronoUnit.MICROS), application.id(),
+                application.applicantId(), application.nationalId(), application.amount(), application.status(),
+                application.documents().stream()
+                        .map(document -> new Document(document.id(), document.fileName(), document.fileType(), document.size(), document.url()))
+                        .toList());
+    }
+}
@@ -0,0 +1,28 @@
+package com.hfgroup.mortgage.event;
+
+import com.fasterxml.jackson.annotation.JsonSubTypes;
+import com.fasterxml.jackson.annotation.JsonTypeInfo;
+
+import java.time.Instant;
+import java.util.UUID;
+
+/**
+ * Events published to loan.applications. Each type is a plain record so the binary codec can
+ * write its fields directly; the JSON form carries the type name in a "type" property.
+ */
+@JsonTypeInfo(use = JsonTypeInfo.Id.NAME, property = "type")
+@JsonSubTypes({
+        @JsonSubTypes.Type(value = ApplicationCreated.class, name = "ApplicationCreated"),
+        @JsonSubTypes.Type(value = ApplicationUpdated.class, name = "ApplicationUpdated"),
+        @JsonSubTypes.Type(value = DecisionMade.class, name = "DecisionMade")
+})
+public sealed interface ApplicationEvent permits ApplicationCreated, ApplicationUpdated, DecisionMade {
+
+    /** Unique per event, lets consumers recognise a redelivery. */
+    UUID eventId();
+
+    /** When the change happened, to the microsecond. */
+    Instant occurredAt();
+
+    UUID applicationId();
+}
@@ -0,0 +1,22 @@
+package com.hfgroup.mortgage.event;
+
+/**
+ * Turns {@link ApplicationEvent}s into record values and back. The content type travels with each
+ * record in the content-type header, so consumers can decode whichever codec the producer used.
+ */
+public interface ApplicationEventCodec {
+
+    String HEADER = "content-type";
+
+    /** Header carrying {@link ApplicationEvent#eventId()}, readable without decoding the value. */
+    String EVENT_ID_HEADER = "event-id";
+
+    String contentType();
+
+    byte[] encode(ApplicationEvent event);
+
+    /**
+     * @throws IllegalArgumentException if the bytes are not an event this codec understands.
+     */
+    ApplicationEvent decode(byte[] data);
+}
@@ -0,0 +1,54 @@
+package com.hfgroup.mortgage.event;
+
+import org.apache.kafka.common.header.Header;
+import org.apache.kafka.common.header.Headers;
+import org.apache.kafka.common.serialization.Deserializer;
+
+import java.nio.charset.StandardCharsets;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Kafka deserializer for loan.applications. Picks the codec named by the record's content-type
+ * header, falling back to the default codec for records without one.
+ */
+public class ApplicationEventDeserializer implements Deserializer<ApplicationEvent> {
+
+    private final Map<String, ApplicationEventCodec> codecs = new HashMap<>();
+    private final ApplicationEventCodec defaultCodec;
+
+    public ApplicationEventDeserializer(ApplicationEventCodec defaultCodec, List<ApplicationEventCodec> codecs) {
+        this.defaultCodec = defaultCodec;
+        codecs.forEach(codec -> this.codecs.put(codec.contentType(), codec));
+    }
+
+    @Override
+    public ApplicationEvent deserialize(String topic, byte[] data) {
+        return data == null ? null : defaultCodec.decode(data);
+    }
+
+    @Override
+    public ApplicationEvent deserialize(String topic, Headers headers, byte[] data) {
+        if (data == null) {
+            return null;
+        }
+        Header header = headers.lastHeader(ApplicationEventCodec.HEADER);
+        return decode(header == null ? null : new String(header.value(), StandardCharsets.UTF_8), data);
+    }
+
+    /**
+     * Method to decode an event stored outside Kafka along with its content type.
+     * @param contentType The codec's content type, or null for the default codec.
+     */
+    public ApplicationEvent decode(String contentType, byte[] data) {
+        if (contentType == null) {
+            return defaultCodec.decode(data);
+        }
+        ApplicationEventCodec codec = codecs.get(contentType);
+        if (codec == null) {
+            throw new IllegalArgumentException("No codec for content type " + contentType);
+        }
+        return codec.decode(data);
+    }
+}
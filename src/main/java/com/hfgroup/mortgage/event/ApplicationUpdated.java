@@ -0,0 +1,22 @@
+package com.hfgroup.mortgage.event;
+
+import com.hfgroup.mortgage.dto.response.ApplicationView;
+
+import java.time.Instant;
+import java.time.temporal.ChronoUnit;
+import java.util.UUID;
+
+public record ApplicationUpdated(
+        UUID eventId,
+        Instant occurredAt,
+        UUID applicationId,
+        String nationalId,
+        Double amount,
+        String status,
+        long version) implements ApplicationEvent {
+
+    public static ApplicationUpdated from(ApplicationView application) {
+        return new ApplicationUpdated(UUID.randomUUID(), Instant.now().truncatedTo(ChronoUnit.MICROS), application.id(),
+                application.nationalId(), application.amount(), application.status(), application.version());
+    }
+}
@@ -0,0 +1,246 @@
+package com.hfgroup.mortgage.event;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * Compact binary form of the events. A record starts with the format version and a type tag,
+ * followed by the fields in declaration order:
+ * <ul>
+ *     <li>UUIDs as 16 big-endian bytes,</li>
+ *     <li>integers as (zigzag) varints, timestamps as epoch microseconds,</li>
+ *     <li>amounts as 8-byte IEEE doubles, NaN standing for null,</li>
+ *     <li>strings as a varint of length + 1 (0 for null) and UTF-8 bytes,</li>
+ *     <li>lists as a varint count followed by the elements.</li>
+ * </ul>
+ * Readers ignore bytes after the fields they know, so a type can gain fields at its end without
+ * a new format version. Removing or reordering fields needs a new version.
+ */
+public class BinaryApplicationEventCodec implements ApplicationEventCodec {
+
+    public static final String CONTENT_TYPE = "application/x-application-event";
+
+    static final byte FORMAT_VERSION = 1;
+
+    private static final byte APPLICATION_CREATED = 1;
+    private static final byte APPLICATION_UPDATED = 2;
+    private static final byte DECISION_MADE = 3;
+
+    @Override
+    public String contentType() {
+        return CONTENT_TYPE;
+    }
+
+    @Override
+    public byte[] encode(ApplicationEvent event) {
+        Writer out = new Writer();
+        out.writeByte(FORMAT_VERSION);
+        switch (event) {
+            case ApplicationCreated created -> {
+                out.writeByte(APPLICATION_CREATED);
+                writeHeader(out, created);
+                out.writeUuid(created.applicantId());
+                out.writeString(created.nationalId());
+                out.writeAmount(created.amount());
+                out.writeString(created.status());
+                out.writeVarLong(created.documents().size());
+                for (ApplicationCreated.Document document : created.documents()) {
+                    out.writeUuid(document.id());
+                    out.writeString(document.fileName());
+                    out.writeString(document.fileType());
+                    out.writeVarLong(document.size());
+                    out.writeString(document.url());
+                }
+            }
+            case ApplicationUpdated updated -> {
+                out.writeByte(APPLICATION_UPDATED);
+                writeHeader(out, updated);
+                out.writeString(updated.nationalId());
+                out.writeAmount(updated.amount());
+                out.writeString(updated.status());
+                out.writeVarLong(updated.version());
+            }
+            case DecisionMade decision -> {
+                out.writeByte(DECISION_MADE);
+                writeHeader(out, decision);
+                out.writeUuid(decision.decisionId());
+                out.writeUuid(decision.approverId());
+                out.writeString(decision.decision());
+                out.writeString(decision.comment());
+                out.writeVarLong(decision.applicationVersion());
+            }
+        }
+        return out.toByteArray();
+    }
+
+    @Override
+    public ApplicationEvent decode(byte[] data) {
+        try {
+            Reader in = new Reader(data);
+            byte version = in.readByte();
+            if (version != FORMAT_VERSION) {
+                throw new IllegalArgumentException("Unsupported event format version " + version);
+            }
+            byte type = in.readByte();
+            UUID eventId = in.readUuid();
+            Instant occurredAt = in.readInstant();
+            UUID applicationId = in.readUuid();
+            return switch (type) {
+                case APPLICATION_CREATED -> {
+                    UUID applicantId = in.readUuid();
+                    String nationalId = in.readString();
+                    Double amount = in.readAmount();
+                    String status = in.readString();
+                    int count = (int) in.readVarLong();
+                    List<ApplicationCreated.Document> documents = new ArrayList<>(Math.min(count, 64));
+                    for (int i = 0; i < count; i++) {
+                        documents.add(new ApplicationCreated.Document(in.readUuid(), in.readString(), in.readString(),
+                                in.readVarLong(), in.readString()));
+                    }
+                    yield new ApplicationCreated(eventId, occurredAt, applicationId, applicantId, nationalId, amount, status, documents);
+                }
+                case APPLICATION_UPDATED -> new ApplicationUpdated(eventId, occurredAt, applicationId,
+                        in.readString(), in.readAmount(), in.readString(), in.readVarLong());
+                case DECISION_MADE -> new DecisionMade(eventId, occurredAt, applicationId,
+                        in.readUuid(), in.readUuid(), in.readString(), in.readString(), in.readVarLong());
+                default -> throw new IllegalArgumentException("Unknown event type " + type);
+            };
+        } catch (IndexOutOfBoundsException e) {
+            throw new IllegalArgumentException("Truncated application event", e);
+        }
+    }
+
+    private static void writeHeader(Writer out, ApplicationEvent event) {
+        out.writeUuid(event.eventId());
+        out.writeInstant(event.occurredAt());
+        out.writeUuid(event.applicationId());
+    }
+
+    private static final class Writer {
+        private byte[] buffer = new byte[128];
+        private int position;
+
+        void writeByte(int value) {
+            ensure(1);
+            buffer[position++] = (byte) value;
+        }
+
+        void writeVarLong(long value) {
+            ensure(10);
+            while ((value & ~0x7FL) != 0) {
+                buffer[position++] = (byte) ((value & 0x7F) | 0x80);
+                value >>>= 7;
+            }
+            buffer[position++] = (byte) value;
+        }
+
+        void writeFixedLong(long value) {
+            ensure(8);
+            for (int shift = 56; shift >= 0; shift -= 8) {
+                buffer[position++] = (byte) (value >>> shift);
+            }
+        }
+
+        void writeUuid(UUID value) {
+            writeFixedLong(value.getMostSignificantBits());
+            writeFixedLong(value.getLeastSignificantBits());
+        }
+
+        void writeInstant(Instant value) {
+            long micros = ChronoUnit.MICROS.between(Instant.EPOCH, value);
+            writeVarLong((micros << 1) ^ (micros >> 63));
+        }
+
+        void writeAmount(Double value) {
+            writeFixedLong(Double.doubleToRawLongBits(value == null ? Double.NaN : value));
+        }
+
+        void writeString(String value) {
+            if (value == null) {
+                writeVarLong(0);
+                return;
+            }
+            byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+            writeVarLong(bytes.length + 1L);
+            ensure(bytes.length);
+            System.arraycopy(bytes, 0, buffer, position, bytes.length);
+            position += bytes.length;
+        }
+
+        byte[] toByteArray() {
+            return Arrays.copyOf(buffer, position);
+        }
+
+        private void ensure(int extra) {
+            if (position + extra > buffer.length) {
+                buffer = Arrays.copyOf(buffer, Math.max(buffer.length * 2, position + extra));
+            }
+        }
+    }
+
+    private static final class Reader {
+        private final byte[] data;
+        private int position;
+
+        Reader(byte[] data) {
+            this.data = data;
+        }
+
+        byte readByte() {
+            return data[position++];
+        }
+
+        long readVarLong() {
+            long result = 0;
+            for (int shift = 0; shift < 64; shift += 7) {
+                byte b = data[position++];
+                result |= (long) (b & 0x7F) << shift;
+                if ((b & 0x80) == 0) {
+                    return result;
+                }
+            }
+            throw new IllegalArgumentException("Malformed varint");
+        }
+
+        long readFixedLong() {
+            long result = 0;
+            for (int i = 0; i < 8; i++) {
+                result = (result << 8) | (data[position++] & 0xFF);
+            }
+            return result;
+        }
+
+        UUID readUuid() {
+            return new UUID(readFixedLong(), readFixedLong());
+        }
+
+        Instant readInstant() {
+            long zigzag = readVarLong();
+            long micros = (zigzag >>> 1) ^ -(zigzag & 1);
+            return Instant.EPOCH.plus(micros, ChronoUnit.MICROS);
+        }
+
+        Double readAmount() {
+            double value = Double.longBitsToDouble(readFixedLong());
+            return Double.isNaN(value) ? null : value;
+        }
+
+        String readString() {
+            long length = readVarLong() - 1;
+            if (length < 0) {
+                return null;
+            }
+            if (length > data.length - position) {
+                throw new IndexOutOfBoundsException("String runs past the end of the event");
+            }
+            String value = new String(data, position, (int) length, StandardCharsets.UTF_8);
+            position += (int) length;
+            return value;
+        }
+    }
+}
@@ -0,0 +1,23 @@
+package com.hfgroup.mortgage.event;
+
+import com.hfgroup.mortgage.model.Decision;
+
+import java.time.Instant;
+import java.time.temporal.ChronoUnit;
+import java.util.UUID;
+
+public record DecisionMade(
+        UUID eventId,
+        Instant occurredAt,
+        UUID applicationId,
+        UUID decisionId,
+        UUID approverId,
+        String decision,
+        String comment,
+        long applicationVersion) implements ApplicationEvent {
+
+    public static DecisionMade from(Decision decision, long applicationVersion) {
+        return new DecisionMade(UUID.randomUUID(), Instant.now().truncatedTo(ChronoUnit.MICROS), decision.getApplicationId(),
+                decision.getId(), decision.getApproverId(), decision.getDecision(), decision.getComment(), applicationVersion);
+    }
+}
@@ -0,0 +1,42 @@
+package com.hfgroup.mortgage.event;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import java.io.IOException;
+
+/**
+ * JSON form of the events, for consumers that cannot read the binary format.
+ */
+public class JsonApplicationEventCodec implements ApplicationEventCodec {
+
+    public static final String CONTENT_TYPE = "application/json";
+
+    private final ObjectMapper objectMapper;
+
+    public JsonApplicationEventCodec(ObjectMapper objectMapper) {
+        this.objectMapper = objectMapper;
+    }
+
+    @Override
+    public String contentType() {
+        return CONTENT_TYPE;
+    }
+
+    @Override
+    public byte[] encode(ApplicationEvent event) {
+        try {
+            return objectMapper.writeValueAsBytes(event);
+        } catch (IOException e) {
+            throw new IllegalArgumentException("Could not encode " + event.getClass().getSimpleName(), e);
+        }
+    }
+
+    @Override
+    public ApplicationEvent decode(byte[] data) {
+        try {
+            return objectMapper.readValue(data, ApplicationEvent.class);
+        } catch (IOException e) {
+            throw new IllegalArgumentException("Not a JSON application event", e);
+        }
+    }
+}
@@ -0,0 +1,7 @@
+package com.hfgroup.mortgage.exception;
+
+public class ApplicationNotEditableException extends RuntimeException {
+    public ApplicationNotEditableException(String message) {
+        super(message);
+    }
+}
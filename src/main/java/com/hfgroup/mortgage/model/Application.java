@@ -37,6 +37,10 @@ public class Application {
     @Column(nullable = false)
     private LocalDateTime updatedAt;
 
+    @Version
+    @Column(nullable = false)
+    private Long version;
+
     @PrePersist
     public void onCreate() {
         this.createdAt = this.updatedAt = LocalDateTime.now();
@@ -26,6 +26,9 @@ public class User {
     @Column(nullable = false)
     private String password;
 
+    @Column(name = "token_epoch", nullable = false)
+    private int tokenEpoch;
+
     @Column(nullable = false, updatable = false)
     private LocalDateTime createdAt;
 
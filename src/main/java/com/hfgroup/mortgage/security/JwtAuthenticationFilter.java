@@ -1,11 +1,13 @@
 package com.hfgroup.mortgage.security;
 
+import com.hfgroup.mortgage.service.TokenEpochService;
+import com.hfgroup.mortgage.service.TokenRevocationService;
 import jakarta.servlet.FilterChain;
 import jakarta.servlet.ServletException;
 import jakarta.servlet.http.HttpServletRequest;
 import jakarta.servlet.http.HttpServletResponse;
-import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
 import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.security.core.userdetails.UserDetails;
@@ -16,14 +18,29 @@ import org.springframework.util.StringUtils;
 import org.springframework.web.filter.OncePerRequestFilter;
 
 import java.io.IOException;
+import java.util.Optional;
 
 @Component
-@RequiredArgsConstructor
 @Slf4j
 public class JwtAuthenticationFilter extends OncePerRequestFilter {
 
     private final JwtTokenProvider tokenProvider;
     private final UserDetailsService userDetailsService;
+    private final TokenEpochService tokenEpochService;
+    private final TokenRevocationService tokenRevocationService;
+    private final boolean claimsOnly;
+
+    public JwtAuthenticationFilter(JwtTokenProvider tokenProvider,
+                                   UserDetailsService userDetailsService,
+                                   TokenEpochService tokenEpochService,
+                                   TokenRevocationService tokenRevocationService,
+                                   @Value("${jwt.claims-only.enabled:false}") boolean claimsOnly) {
+        this.tokenProvider = tokenProvider;
+        this.userDetailsService = userDetailsService;
+        this.tokenEpochService = tokenEpochService;
+        this.tokenRevocationService = tokenRevocationService;
+        this.claimsOnly = claimsOnly;
+    }
 
     @Override
     protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain)
@@ -31,10 +48,11 @@ public class JwtAuthenticationFilter extends OncePerRequestFilter {
         try {
             String jwt = getJwtFromRequest(request);
 
-            if (StringUtils.hasText(jwt) && tokenProvider.validateToken(jwt)) {
-                String username = tokenProvider.getUsernameFromToken(jwt);
+            Optional<JwtClaims> claims = StringUtils.hasText(jwt) ? tokenProvider.parseToken(jwt) : Optional.empty();
+
+            UserDetails userDetails = claims.map(this::resolveUser).orElse(null);
 
-                UserDetails userDetails = userDetailsService.loadUserByUsername(username);
+            if (userDetails != null) {
                 UsernamePasswordAuthenticationToken authentication = new UsernamePasswordAuthenticationToken(
                         userDetails, null, userDetails.getAuthorities());
                 authentication.setDetails(new WebAuthenticationDetailsSource().buildDetails(request));
@@ -48,6 +66,30 @@ public class JwtAuthenticationFilter extends OncePerRequestFilter {
         filterChain.doFilter(request, response);
     }
 
+    /**
+     * In claims-only mode a self-contained token is turned into a principal without touching the users table,
+     * apart from the periodically refreshed epoch check. Otherwise the user is loaded and its epoch compared.
+     * @return The authenticated user, or null if the token has been revoked.
+     */
+    private UserDetails resolveUser(JwtClaims claims) {
+        if (tokenRevocationService.isRevoked(claims.tokenId())) {
+            return null;
+        }
+        if (claimsOnly && claims.isSelfContained()) {
+            return tokenEpochService.isCurrent(claims.userId(), claims.tokenEpoch())
+                    ? UserPrincipal.fromClaims(claims)
+                    : null;
+        }
+
+        UserDetails userDetails = userDetailsService.loadUserByUsername(claims.subject());
+        if (claims.tokenEpoch() != null
+                && userDetails instanceof UserPrincipal userPrincipal
+                && userPrincipal.getTokenEpoch() != claims.tokenEpoch()) {
+            return null;
+        }
+        return userDetails;
+    }
+
     private String getJwtFromRequest(HttpServletRequest request) {
         String bearerToken = request.getHeader("Authorization");
         if (StringUtils.hasText(bearerToken) && bearerToken.startsWith("Bearer ")) {
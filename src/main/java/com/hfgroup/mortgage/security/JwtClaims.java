@@ -0,0 +1,29 @@
+package com.hfgroup.mortgage.security;
+
+import java.time.Instant;
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * Immutable view of the claims carried by a verified JWT.
+ *
+ * @param subject    The username the token was issued to.
+ * @param tokenId    The unique token id (jti), or null for tokens issued before the claim existed.
+ * @param userId     The user id, or null for tokens issued before the claim existed.
+ * @param roles      Granted authorities, e.g. ROLE_OFFICER.
+ * @param tokenEpoch The user's token epoch at issue time, or null for older tokens.
+ * @param expiresAt  The instant after which the token is no longer valid.
+ */
+public record JwtClaims(String subject, UUID tokenId, UUID userId, List<String> roles, Integer tokenEpoch, Instant expiresAt) {
+
+    public JwtClaims {
+        roles = roles == null ? List.of() : List.copyOf(roles);
+    }
+
+    /**
+     * @return true if the token carries everything needed to authenticate without loading the user.
+     */
+    public boolean isSelfContained() {
+        return userId != null && tokenEpoch != null;
+    }
+}
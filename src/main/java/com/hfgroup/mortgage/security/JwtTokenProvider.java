@@ -7,23 +7,40 @@ import org.springframework.beans.factory.annotation.Value;
 import org.springframework.security.core.Authentication;
 import org.springframework.security.core.GrantedAuthority;
 import org.springframework.stereotype.Component;
+import org.springframework.util.StringUtils;
 
 import javax.crypto.SecretKey;
+import java.util.Arrays;
 import java.util.Date;
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
 import java.util.stream.Collectors;
 
 @Component
 @Slf4j
 public class JwtTokenProvider {
 
-    @Value("${jwt.secret:defaultSecretKeyForDevelopmentOnly}")
-    private String jwtSecret;
+    private static final String ROLES_CLAIM = "roles";
+    private static final String USER_ID_CLAIM = "uid";
+    private static final String TOKEN_EPOCH_CLAIM = "epoch";
 
-    @Value("${jwt.expiration:86400000}") // 24 hours in milliseconds
-    private long jwtExpiration;
+    private final long jwtExpiration;
 
-    private SecretKey getSigningKey() {
-        return Keys.hmacShaKeyFor(jwtSecret.getBytes());
+    // Both are thread-safe and expensive to build, so they are created once at startup
+    private final SecretKey signingKey;
+    private final JwtParser jwtParser;
+    private final VerifiedTokenCache verifiedTokenCache;
+
+    public JwtTokenProvider(@Value("${jwt.secret:defaultSecretKeyForDevelopmentOnly}") String jwtSecret,
+                            @Value("${jwt.expiration:86400000}") long jwtExpiration, // 24 hours in milliseconds
+                            VerifiedTokenCache verifiedTokenCache) {
+        this.jwtExpiration = jwtExpiration;
+        this.verifiedTokenCache = verifiedTokenCache;
+        this.signingKey = Keys.hmacShaKeyFor(jwtSecret.getBytes());
+        this.jwtParser = Jwts.parser()
+                .verifyWith(signingKey)
+                .build();
     }
 
     public String generateToken(Authentication authentication) {
@@ -35,35 +52,64 @@ public class JwtTokenProvider {
         Date now = new Date();
         Date expiryDate = new Date(now.getTime() + jwtExpiration);
 
-        return Jwts.builder()
+        JwtBuilder builder = Jwts.builder()
+                .setId(UUID.randomUUID().toString())
                 .setSubject(username)
-                .claim("roles", authorities)
+                .claim(ROLES_CLAIM, authorities)
                 .setIssuedAt(now)
-                .setExpiration(expiryDate)
-                .signWith(getSigningKey(), Jwts.SIG.HS512)
-                .compact();
-    }
+                .setExpiration(expiryDate);
 
-    public String getUsernameFromToken(String token) {
-        Claims claims = Jwts.parser()
-                .verifyWith(getSigningKey())
-                .build()
-                .parseSignedClaims(token)
-                .getPayload();
+        if (authentication.getPrincipal() instanceof UserPrincipal userPrincipal) {
+            builder.claim(USER_ID_CLAIM, userPrincipal.getId().toString())
+                    .claim(TOKEN_EPOCH_CLAIM, userPrincipal.getTokenEpoch());
+        }
 
-        return claims.getSubject();
+        return builder
+                .signWith(signingKey, Jwts.SIG.HS512)
+                .compact();
     }
 
-    public boolean validateToken(String token) {
+    /**
+     * Verifies the token signature and expiry in a single pass.
+     * Tokens seen before are answered from the verified-token cache without any crypto or parsing.
+     * @param token The compact JWT string.
+     * @return The parsed claims, or empty if the token is invalid or expired.
+     */
+    public Optional<JwtClaims> parseToken(String token) {
         try {
-            Jwts.parser()
-                    .verifyWith(getSigningKey())
-                    .build()
-                    .parseSignedClaims(token);
-            return true;
+            return Optional.of(verifiedTokenCache.getOrVerify(token, this::verify));
         } catch (JwtException | IllegalArgumentException e) {
             log.error("Invalid JWT token: {}", e.getMessage());
-            return false;
+            return Optional.empty();
         }
     }
+
+    public String getUsernameFromToken(String token) {
+        return jwtParser.parseSignedClaims(token)
+                .getPayload()
+                .getSubject();
+    }
+
+    public boolean validateToken(String token) {
+        return parseToken(token).isPresent();
+    }
+
+    private JwtClaims verify(String token) {
+        return toJwtClaims(jwtParser.parseSignedClaims(token).getPayload());
+    }
+
+    private JwtClaims toJwtClaims(Claims claims) {
+        String roles = claims.get(ROLES_CLAIM, String.class);
+        List<String> roleList = StringUtils.hasText(roles)
+                ? Arrays.asList(roles.split(","))
+                : List.of();
+        String userId = claims.get(USER_ID_CLAIM, String.class);
+        return new JwtClaims(
+                claims.getSubject(),
+                claims.getId() != null ? UUID.fromString(claims.getId()) : null,
+                userId != null ? UUID.fromString(userId) : null,
+                roleList,
+                claims.get(TOKEN_EPOCH_CLAIM, Integer.class),
+                claims.getExpiration().toInstant());
+    }
 }
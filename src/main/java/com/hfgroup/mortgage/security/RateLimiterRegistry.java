@@ -0,0 +1,127 @@
+package com.hfgroup.mortgage.security;
+
+import com.hfgroup.mortgage.config.RateLimitProperties;
+import com.hfgroup.mortgage.exception.TooManyRequestsException;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.security.authentication.AnonymousAuthenticationToken;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.GrantedAuthority;
+import org.springframework.stereotype.Component;
+import org.springframework.util.AntPathMatcher;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Builds the configured rate limiters once and answers "may this caller proceed" for login and
+ * for the protected routes. Rejections are counted per limiter in security.rate_limit.rejected.
+ */
+@Component
+public class RateLimiterRegistry {
+
+    private final RateLimitProperties properties;
+    private final MeterRegistry meterRegistry;
+    private final AntPathMatcher pathMatcher = new AntPathMatcher();
+    private final List<MeteredLimiter> allLimiters = new ArrayList<>();
+
+    private final MeteredLimiter loginPerIp;
+    private final MeteredLimiter loginPerUsername;
+    private final List<RouteLimiter> routeLimiters = new ArrayList<>();
+
+    public RateLimiterRegistry(RateLimitProperties properties, MeterRegistry meterRegistry) {
+        this.properties = properties;
+        this.meterRegistry = meterRegistry;
+        this.loginPerIp = create("login.ip", properties.getLogin().getPerIp());
+        this.loginPerUsername = create("login.username", properties.getLogin().getPerUsername());
+
+        properties.getRoutes().forEach((routeName, route) -> {
+            Map<String, MeteredLimiter> byRole = new HashMap<>();
+            route.getRoles().forEach((role, limit) ->
+                    byRole.put("ROLE_" + role.toUpperCase(), create(routeName + "." + role.toLowerCase(), limit)));
+            routeLimiters.add(new RouteLimiter(route.getPattern(), create(routeName, route.getDefaultLimit()), byRole));
+        });
+    }
+
+    /**
+     * Method to admit a login attempt before any password hashing is done.
+     * @throws TooManyRequestsException if the client IP or the username is over its limit.
+     */
+    public void checkLogin(String clientIp, String username) {
+        if (!properties.isEnabled()) {
+            return;
+        }
+        if (!loginPerIp.tryAcquire(clientIp) || !loginPerUsername.tryAcquire(username)) {
+            throw new TooManyRequestsException("Too many login attempts, please retry shortly");
+        }
+    }
+
+    /**
+     * Method to admit a request to a rate-limited route.
+     * @param path The request path.
+     * @param authentication The authenticated caller, or null for anonymous requests.
+     * @param clientIp Used as the key when the caller is anonymous.
+     * @return false if the caller is over the limit for the first route matching the path.
+     */
+    public boolean tryAcquireRoute(String path, Authentication authentication, String clientIp) {
+        if (!properties.isEnabled()) {
+            return true;
+        }
+        for (RouteLimiter route : routeLimiters) {
+            if (pathMatcher.match(route.pattern(), path)) {
+                boolean authenticated = authentication != null && authentication.isAuthenticated()
+                        && !(authentication instanceof AnonymousAuthenticationToken);
+                String key = authenticated ? authentication.getName() : clientIp;
+                return route.limiterFor(authenticated ? authentication : null).tryAcquire(key);
+            }
+        }
+        return true;
+    }
+
+    @Scheduled(fixedDelayString = "${security.rate-limit.eviction-interval:PT1M}")
+    public void evictIdleBuckets() {
+        allLimiters.forEach(limiter -> limiter.limiter().evictIdle());
+    }
+
+    private MeteredLimiter create(String name, RateLimitProperties.Limit limit) {
+        TokenBucketRateLimiter limiter = new TokenBucketRateLimiter(name, limit.getCapacity(), limit.getRefillPerMinute(),
+                properties.getMaxKeys(), properties.getStripes(), System::nanoTime);
+        Counter rejected = Counter.builder("security.rate_limit.rejected")
+                .tag("limiter", name)
+                .register(meterRegistry);
+        Gauge.builder("security.rate_limit.buckets", limiter, TokenBucketRateLimiter::size)
+                .tag("limiter", name)
+                .register(meterRegistry);
+        MeteredLimiter metered = new MeteredLimiter(limiter, rejected);
+        allLimiters.add(metered);
+        return metered;
+    }
+
+    private record MeteredLimiter(TokenBucketRateLimiter limiter, Counter rejected) {
+        boolean tryAcquire(String key) {
+            if (limiter.tryAcquire(key)) {
+                return true;
+            }
+            rejected.increment();
+            return false;
+        }
+    }
+
+    private record RouteLimiter(String pattern, MeteredLimiter defaultLimiter, Map<String, MeteredLimiter> byRole) {
+        MeteredLimiter limiterFor(Authentication authentication) {
+            if (authentication != null && !byRole.isEmpty()) {
+                for (GrantedAuthority authority : authentication.getAuthorities()) {
+                    MeteredLimiter limiter = byRole.get(authority.getAuthority());
+                    if (limiter != null) {
+                        return limiter;
+                    }
+                }
+            }
+            return defaultLimiter;
+        }
+    }
+}
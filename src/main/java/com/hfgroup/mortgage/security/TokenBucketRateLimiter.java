@@ -0,0 +1,106 @@
+package com.hfgroup.mortgage.security;
+
+import com.github.benmanes.caffeine.cache.Caffeine;
+
+import java.util.concurrent.ConcurrentMap;
+import java.util.function.LongSupplier;
+
+/**
+ * Token-bucket rate limiter keyed by an arbitrary string (username, client IP, ...).
+ * Buckets are plain mutable objects guarded by a fixed set of lock stripes, so a check against an
+ * existing bucket takes one map lookup and one short monitor with no allocation. Buckets that have
+ * refilled completely are dropped by {@link #evictIdle()}. At most maxKeys buckets are kept; beyond
+ * that Caffeine evicts the least valuable ones, so key-spraying costs bounded memory and only ever
+ * resets rarely used buckets instead of locking every new caller into a shared one.
+ */
+public class TokenBucketRateLimiter {
+
+    private final String name;
+    private final double capacity;
+    private final double tokensPerNano;
+    private final long idleNanos;
+    private final LongSupplier nanoClock;
+    private final Object[] stripes;
+    private final ConcurrentMap<String, Bucket> buckets;
+
+    public TokenBucketRateLimiter(String name, long capacity, double refillPerMinute, int maxKeys, int stripeCount,
+                                  LongSupplier nanoClock) {
+        this.name = name;
+        this.capacity = capacity;
+        this.tokensPerNano = refillPerMinute / 60_000_000_000d;
+        // Evict on the calling thread so the bound holds without a background executor
+        this.buckets = Caffeine.newBuilder()
+                .maximumSize(maxKeys)
+                .executor(Runnable::run)
+                .<String, Bucket>build()
+                .asMap();
+        // A bucket left alone this long is full again and carries no state worth keeping
+        this.idleNanos = (long) Math.ceil(capacity / tokensPerNano);
+        this.nanoClock = nanoClock;
+        this.stripes = new Object[Integer.highestOneBit(Math.max(1, stripeCount - 1)) << 1];
+        for (int i = 0; i < stripes.length; i++) {
+            stripes[i] = new Object();
+        }
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    /**
+     * Method to take one token for the given key.
+     * @param key The caller identity the limit applies to.
+     * @return true if the call is allowed, false if the bucket is empty.
+     */
+    public boolean tryAcquire(String key) {
+        Bucket bucket = buckets.get(key);
+        if (bucket == null) {
+            bucket = buckets.computeIfAbsent(key, this::newBucket);
+        }
+
+        synchronized (stripes[bucket.stripe]) {
+            long now = nanoClock.getAsLong();
+            double refilled = bucket.tokens + (now - bucket.lastRefillNanos) * tokensPerNano;
+            bucket.tokens = Math.min(capacity, refilled);
+            bucket.lastRefillNanos = now;
+            if (bucket.tokens < 1d) {
+                return false;
+            }
+            bucket.tokens -= 1d;
+            return true;
+        }
+    }
+
+    /**
+     * Drops buckets that have been idle long enough to be full again.
+     * @return How many buckets were removed.
+     */
+    public int evictIdle() {
+        long now = nanoClock.getAsLong();
+        int before = buckets.size();
+        buckets.values().removeIf(bucket -> now - bucket.lastRefillNanos >= idleNanos);
+        return before - buckets.size();
+    }
+
+    public int size() {
+        return buckets.size();
+    }
+
+    private Bucket newBucket(String key) {
+        int hash = key.hashCode();
+        int stripe = (hash ^ (hash >>> 16)) & (stripes.length - 1);
+        return new Bucket(capacity, nanoClock.getAsLong(), stripe);
+    }
+
+    private static final class Bucket {
+        private final int stripe;
+        private double tokens;
+        private long lastRefillNanos;
+
+        private Bucket(double tokens, long lastRefillNanos, int stripe) {
+            this.tokens = tokens;
+            this.lastRefillNanos = lastRefillNanos;
+            this.stripe = stripe;
+        }
+    }
+}
@@ -24,6 +24,7 @@ public class UserPrincipal implements UserDetails {
     private String username;
     private String password;
     private Collection<? extends GrantedAuthority> authorities;
+    private int tokenEpoch;
 
     public static UserPrincipal create(User user) {
         var authorities = Arrays.stream(user.getRoles().split(","))
@@ -35,6 +36,23 @@ public class UserPrincipal implements UserDetails {
                 .username(user.getUsername())
                 .password(user.getPassword())
                 .authorities(authorities)
+                .tokenEpoch(user.getTokenEpoch())
+                .build();
+    }
+
+    /**
+     * Builds a principal straight from verified token claims, without a password.
+     */
+    public static UserPrincipal fromClaims(JwtClaims claims) {
+        var authorities = claims.roles().stream()
+                .map(SimpleGrantedAuthority::new)
+                .collect(Collectors.toList());
+
+        return UserPrincipal.builder()
+                .id(claims.userId())
+                .username(claims.subject())
+                .authorities(authorities)
+                .tokenEpoch(claims.tokenEpoch())
                 .build();
     }
 
@@ -0,0 +1,94 @@
+package com.hfgroup.mortgage.security;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Expiry;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Instant;
+import java.util.function.Function;
+
+/**
+ * Remembers the claims of tokens that have already passed signature verification, keyed by the
+ * SHA-256 digest of the token so the raw token is never held in memory. Each entry lives until the
+ * token's own expiry and the cache is size-bounded; reads are lock-free. Revocation and epoch checks
+ * are not cached and still run on every request.
+ */
+@Component
+public class VerifiedTokenCache {
+
+    private static final ThreadLocal<MessageDigest> SHA_256 = ThreadLocal.withInitial(() -> {
+        try {
+            return MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 is not available", e);
+        }
+    });
+
+    private final Cache<TokenDigest, JwtClaims> cache;
+
+    public VerifiedTokenCache(@Value("${jwt.verified-cache.maximum-size:100000}") long maximumSize,
+                              MeterRegistry meterRegistry) {
+        if (maximumSize <= 0) {
+            this.cache = null;
+            return;
+        }
+        this.cache = Caffeine.newBuilder()
+                .maximumSize(maximumSize)
+                .expireAfter(new UntilTokenExpiry())
+                .recordStats()
+                .build();
+        CaffeineCacheMetrics.monitor(meterRegistry, cache, "verified-tokens");
+    }
+
+    /**
+     * Method to return the claims of a previously verified token, or verify it now and remember the result.
+     * @param token The compact JWT string.
+     * @param verifier Performs the full signature verification; exceptions propagate and nothing is cached.
+     * @return The verified claims.
+     */
+    public JwtClaims getOrVerify(String token, Function<String, JwtClaims> verifier) {
+        if (cache == null) {
+            return verifier.apply(token);
+        }
+        TokenDigest digest = TokenDigest.of(token);
+        JwtClaims claims = cache.getIfPresent(digest);
+        if (claims == null) {
+            claims = verifier.apply(token);
+            cache.put(digest, claims);
+        }
+        return claims;
+    }
+
+    private record TokenDigest(long a, long b, long c, long d) {
+        static TokenDigest of(String token) {
+            ByteBuffer hash = ByteBuffer.wrap(SHA_256.get().digest(token.getBytes(StandardCharsets.US_ASCII)));
+            return new TokenDigest(hash.getLong(), hash.getLong(), hash.getLong(), hash.getLong());
+        }
+    }
+
+    private static final class UntilTokenExpiry implements Expiry<TokenDigest, JwtClaims> {
+        @Override
+        public long expireAfterCreate(TokenDigest key, JwtClaims claims, long currentTime) {
+            long millisLeft = claims.expiresAt().toEpochMilli() - Instant.now().toEpochMilli();
+            return Math.max(0L, millisLeft) * 1_000_000L;
+        }
+
+        @Override
+        public long expireAfterUpdate(TokenDigest key, JwtClaims claims, long currentTime, long currentDuration) {
+            return expireAfterCreate(key, claims, currentTime);
+        }
+
+        @Override
+        public long expireAfterRead(TokenDigest key, JwtClaims claims, long currentTime, long currentDuration) {
+            return currentDuration;
+        }
+    }
+}
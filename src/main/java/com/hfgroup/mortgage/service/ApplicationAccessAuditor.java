@@ -0,0 +1,96 @@
+package com.hfgroup.mortgage.service;
+
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.time.LocalDateTime;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Aggregates application reads into per-application counts and publishes them to the
+ * application-fetched topic once per window from the scheduler thread, so a GET only pays for
+ * a map increment and never waits on Kafka.
+ */
+@Service
+@Slf4j
+public class ApplicationAccessAuditor {
+
+    private static final String TOPIC = "application-fetched";
+
+    private final KafkaProducerService kafkaProducerService;
+    private final boolean enabled;
+    private final int maxTrackedApplications;
+
+    private final AtomicReference<Window> current = new AtomicReference<>(new Window(LocalDateTime.now()));
+    private final LongAdder dropped = new LongAdder();
+
+    public ApplicationAccessAuditor(KafkaProducerService kafkaProducerService,
+                                    @Value("${audit.application-access.enabled:true}") boolean enabled,
+                                    @Value("${audit.application-access.max-tracked:100000}") int maxTrackedApplications) {
+        this.kafkaProducerService = kafkaProducerService;
+        this.enabled = enabled;
+        this.maxTrackedApplications = maxTrackedApplications;
+    }
+
+    /**
+     * Method to count one read of an application in the current window.
+     * @param applicationId The application that was read.
+     */
+    public void recordAccess(UUID applicationId) {
+        if (!enabled) {
+            return;
+        }
+        Window window = current.get();
+        LongAdder counter = window.counts.get(applicationId);
+        if (counter == null) {
+            if (window.counts.size() >= maxTrackedApplications) {
+                dropped.increment();
+                return;
+            }
+            counter = window.counts.computeIfAbsent(applicationId, id -> new LongAdder());
+        }
+        counter.increment();
+    }
+
+    /**
+     * Closes the current window and publishes one access-count event per application read in it.
+     */
+    @Scheduled(fixedDelayString = "${audit.application-access.flush-interval:PT1M}")
+    @PreDestroy
+    public void flush() {
+        LocalDateTime now = LocalDateTime.now();
+        // A reader that grabbed the old window just before the swap may still add to it; such a
+        // late increment can be missed, which is acceptable for audit counts
+        Window closed = current.getAndSet(new Window(now));
+        if (closed.counts.isEmpty()) {
+            return;
+        }
+        for (Map.Entry<UUID, LongAdder> entry : closed.counts.entrySet()) {
+            kafkaProducerService.publishMessage(TOPIC, entry.getKey(),
+                    new AccessCount(entry.getKey(), entry.getValue().sum(), closed.start.toString(), now.toString()));
+        }
+        long droppedReads = dropped.sumThenReset();
+        if (droppedReads > 0) {
+            log.warn("Dropped {} application reads from the audit window, more than {} applications were read", droppedReads, maxTrackedApplications);
+        }
+    }
+
+    public record AccessCount(UUID applicationId, long count, String windowStart, String windowEnd) {
+    }
+
+    private static final class Window {
+        private final LocalDateTime start;
+        private final ConcurrentHashMap<UUID, LongAdder> counts = new ConcurrentHashMap<>();
+
+        private Window(LocalDateTime start) {
+            this.start = start;
+        }
+    }
+}
@@ -0,0 +1,249 @@
+package com.hfgroup.mortgage.service;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+import com.hfgroup.mortgage.dto.request.ApplicationDTO;
+import com.hfgroup.mortgage.dto.response.ApplicationView;
+import com.hfgroup.mortgage.dto.response.BatchResultDTO;
+import com.hfgroup.mortgage.dto.response.DocumentView;
+import com.hfgroup.mortgage.event.ApplicationCreated;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataAccessException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+
+/**
+ * Bulk ingestion of applications submitted by partners. Items are validated and inserted in
+ * chunks, each chunk in one transaction using JDBC batch inserts with ids generated up front, so
+ * documents can be batched in the same round trips as their applications. A chunk that fails as
+ * a whole is retried row by row to pin down the offending items; the rest are still created.
+ */
+@Service
+@Slf4j
+public class ApplicationBatchService {
+
+    private static final String INSERT_APPLICATION =
+            "INSERT INTO applications (id, applicant_id, national_id, amount, status, created_at, updated_at) VALUES (?, ?, ?, ?, ?, ?, ?)";
+    private static final String INSERT_DOCUMENT =
+            "INSERT INTO documents (id, application_id, file_name, file_type, size, url, created_at) VALUES (?, ?, ?, ?, ?, ?, ?)";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final NamedParameterJdbcTemplate namedJdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final OutboxService outboxService;
+    private final ObjectReader applicationReader;
+    private final int chunkSize;
+
+    public ApplicationBatchService(JdbcTemplate jdbcTemplate,
+                                   PlatformTransactionManager transactionManager,
+                                   OutboxService outboxService,
+                                   ObjectMapper objectMapper,
+                                   @Value("${applications.batch.chunk-size:500}") int chunkSize) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.namedJdbcTemplate = new NamedParameterJdbcTemplate(jdbcTemplate);
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.outboxService = outboxService;
+        this.applicationReader = objectMapper.readerFor(ApplicationDTO.class);
+        this.chunkSize = chunkSize;
+    }
+
+    /**
+     * Method to ingest a list of applications.
+     * @param applications The applications, documents must already be uploaded (presignedUrl set).
+     * @return Which items were created and why the others were rejected.
+     */
+    public BatchResultDTO ingest(List<ApplicationDTO> applications) {
+        BatchResultDTO result = new BatchResultDTO();
+        List<Item> chunk = new ArrayList<>(chunkSize);
+        for (int index = 0; index < applications.size(); index++) {
+            accept(new Item(index, applications.get(index)), chunk, result);
+        }
+        flush(chunk, result);
+        return result;
+    }
+
+    /**
+     * Method to ingest applications sent as JSON lines, one application per line. Lines are read
+     * and written chunk by chunk, so only one chunk of the body is held in memory at a time; the
+     * result grows with the number of lines, which is why they are capped at maxItems. Reading
+     * stops at the cap and the result is marked truncated, still listing what was created.
+     * @param reader The request body.
+     * @param maxItems The most lines to ingest.
+     * @return Which lines were created and why the others were rejected.
+     */
+    public BatchResultDTO ingestJsonLines(BufferedReader reader, int maxItems) throws IOException {
+        BatchResultDTO result = new BatchResultDTO();
+        List<Item> chunk = new ArrayList<>(chunkSize);
+        int index = 0;
+        String line;
+        while ((line = reader.readLine()) != null) {
+            if (line.isBlank()) {
+                continue;
+            }
+            if (index >= maxItems) {
+                result.setTruncated(true);
+                break;
+            }
+            try {
+                accept(new Item(index, applicationReader.readValue(line)), chunk, result);
+            } catch (JsonProcessingException e) {
+                result.setReceived(result.getReceived() + 1);
+                fail(result, index, "Malformed JSON: " + e.getOriginalMessage());
+            }
+            index++;
+        }
+        flush(chunk, result);
+        return result;
+    }
+
+    private void accept(Item item, List<Item> chunk, BatchResultDTO result) {
+        result.setReceived(result.getReceived() + 1);
+        String error = validate(item.application());
+        if (error != null) {
+            fail(result, item.index(), error);
+            return;
+        }
+        chunk.add(item);
+        if (chunk.size() >= chunkSize) {
+            flush(chunk, result);
+        }
+    }
+
+    private void flush(List<Item> chunk, BatchResultDTO result) {
+        if (chunk.isEmpty()) {
+            return;
+        }
+        List<Item> insertable = new ArrayList<>(chunk.size());
+        Set<UUID> knownApplicants = findExistingApplicants(chunk);
+        for (Item item : chunk) {
+            if (knownApplicants.contains(item.application().getApplicantId())) {
+                insertable.add(item);
+            } else {
+                fail(result, item.index(), "Applicant not found: " + item.application().getApplicantId());
+            }
+        }
+
+        List<Row> rows = insertable.stream().map(this::toRow).toList();
+        try {
+            transactionTemplate.executeWithoutResult(status -> insert(rows));
+            rows.forEach(row -> created(result, row));
+        } catch (DataAccessException e) {
+            log.warn("Batch insert of {} applications failed, retrying row by row: {}", rows.size(), e.getMostSpecificCause().getMessage());
+            for (Row row : rows) {
+                try {
+                    transactionTemplate.executeWithoutResult(status -> insert(List.of(row)));
+                    created(result, row);
+                } catch (DataAccessException rowFailure) {
+                    fail(result, row.index(), rowFailure.getMostSpecificCause().getMessage());
+                }
+            }
+        }
+        chunk.clear();
+    }
+
+    private void insert(List<Row> rows) {
+        jdbcTemplate.batchUpdate(INSERT_APPLICATION, rows, rows.size(), (ps, row) -> {
+            ApplicationView application = row.view();
+            ps.setObject(1, application.id());
+            ps.setObject(2, application.applicantId());
+            ps.setString(3, application.nationalId());
+            ps.setDouble(4, application.amount());
+            ps.setString(5, application.status());
+            ps.setTimestamp(6, Timestamp.valueOf(application.createdAt()));
+            ps.setTimestamp(7, Timestamp.valueOf(application.updatedAt()));
+        });
+
+        List<DocumentView> documents = rows.stream().flatMap(row -> row.view().documents().stream()).toList();
+        if (!documents.isEmpty()) {
+            jdbcTemplate.batchUpdate(INSERT_DOCUMENT, documents, documents.size(), (ps, document) -> {
+                ps.setObject(1, document.id());
+                ps.setObject(2, document.applicationId());
+                ps.setString(3, document.fileName());
+                ps.setString(4, document.fileType());
+                ps.setLong(5, document.size());
+                ps.setString(6, document.url());
+                ps.setTimestamp(7, Timestamp.valueOf(document.createdAt()));
+            });
+        }
+        enqueueEvents(rows);
+    }
+
+    // One event per created application, written to the outbox in the chunk's transaction
+    private void enqueueEvents(List<Row> rows) {
+        outboxService.enqueueAll("loan.applications", rows.stream().map(row -> ApplicationCreated.from(row.view())).toList());
+    }
+
+    private Set<UUID> findExistingApplicants(List<Item> chunk) {
+        Set<UUID> applicantIds = new HashSet<>();
+        chunk.forEach(item -> applicantIds.add(item.application().getApplicantId()));
+        return new HashSet<>(namedJdbcTemplate.queryForList("SELECT id FROM users WHERE id IN (:ids)",
+                new MapSqlParameterSource("ids", applicantIds), UUID.class));
+    }
+
+    private Row toRow(Item item) {
+        ApplicationDTO dto = item.application();
+        UUID applicationId = UUID.randomUUID();
+        LocalDateTime now = LocalDateTime.now();
+        List<DocumentView> documents = dto.getDocuments() == null ? List.of() : dto.getDocuments().stream()
+                .map(document -> new DocumentView(UUID.randomUUID(), applicationId, document.getFileName(),
+                        document.getFileType(), document.getSize(), document.getPresignedUrl(), now))
+                .toList();
+        return new Row(item.index(), new ApplicationView(applicationId, dto.getApplicantId(), dto.getNationalId(),
+                dto.getAmount(), dto.getStatus() != null ? dto.getStatus() : "PENDING", now, now, 0, documents));
+    }
+
+    private static String validate(ApplicationDTO application) {
+        if (application == null) {
+            return "Application is required";
+        }
+        if (application.getApplicantId() == null) {
+            return "applicantId is required";
+        }
+        if (application.getNationalId() == null || application.getNationalId().isBlank() || application.getNationalId().length() > 20) {
+            return "nationalId is required and must be at most 20 characters";
+        }
+        if (application.getAmount() == null || application.getAmount() <= 0) {
+            return "amount must be greater than zero";
+        }
+        if (application.getDocuments() != null) {
+            for (ApplicationDTO.DocumentMetadata document : application.getDocuments()) {
+                if (document.getFileName() == null || document.getFileType() == null || document.getPresignedUrl() == null) {
+                    return "Each document needs fileName, fileType and presignedUrl";
+                }
+            }
+        }
+        return null;
+    }
+
+    private static void created(BatchResultDTO result, Row row) {
+        result.setCreated(result.getCreated() + 1);
+        result.getCreatedItems().add(new BatchResultDTO.CreatedItem(row.index(), row.view().id()));
+    }
+
+    private static void fail(BatchResultDTO result, int index, String error) {
+        result.setFailed(result.getFailed() + 1);
+        result.getErrors().add(new BatchResultDTO.FailedItem(index, error));
+    }
+
+    private record Item(int index, ApplicationDTO application) {
+    }
+
+    private record Row(int index, ApplicationView view) {
+    }
+}
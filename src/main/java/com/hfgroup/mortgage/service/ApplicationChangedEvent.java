@@ -0,0 +1,10 @@
+package com.hfgroup.mortgage.service;
+
+import java.util.UUID;
+
+/**
+ * Published inside the writing transaction whenever an application row or its status changes.
+ * Listeners that react to it should do so after commit.
+ */
+public record ApplicationChangedEvent(UUID applicationId) {
+}
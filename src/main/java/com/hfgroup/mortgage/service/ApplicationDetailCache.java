@@ -0,0 +1,54 @@
+package com.hfgroup.mortgage.service;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.hfgroup.mortgage.dto.response.ApplicationView;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.time.Duration;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.function.Function;
+
+/**
+ * Bounded read-through cache of application detail views, so status polling does not run the
+ * documents join on every call. Entries are dropped when an {@link ApplicationChangedEvent}
+ * commits; expire-after-write bounds how long a view read concurrently with a write can linger.
+ */
+@Component
+public class ApplicationDetailCache {
+
+    private final Cache<UUID, ApplicationView> cache;
+
+    public ApplicationDetailCache(MeterRegistry meterRegistry,
+                                  @Value("${applications.detail-cache.maximum-size:50000}") long maximumSize,
+                                  @Value("${applications.detail-cache.expire-after-write:PT5M}") Duration expireAfterWrite) {
+        this.cache = Caffeine.newBuilder()
+                .maximumSize(maximumSize)
+                .expireAfterWrite(expireAfterWrite)
+                .recordStats()
+                .build();
+        CaffeineCacheMetrics.monitor(meterRegistry, cache, "application-details");
+    }
+
+    /**
+     * Method to get a cached view, loading it on a miss. Missing applications are not cached.
+     * @param applicationId The application ID.
+     * @param loader Loads the view from the database on a miss.
+     * @return The view, or empty if the application does not exist.
+     */
+    public Optional<ApplicationView> get(UUID applicationId, Function<UUID, Optional<ApplicationView>> loader) {
+        return Optional.ofNullable(cache.get(applicationId, id -> loader.apply(id).orElse(null)));
+    }
+
+    // fallbackExecution covers writes made outside a transaction, which are already committed
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT, fallbackExecution = true)
+    public void onApplicationChanged(ApplicationChangedEvent event) {
+        cache.invalidate(event.applicationId());
+    }
+}
@@ -0,0 +1,170 @@
+package com.hfgroup.mortgage.service;
+
+import com.hfgroup.mortgage.event.ApplicationEvent;
+import com.hfgroup.mortgage.event.ApplicationEventCodec;
+import org.apache.kafka.clients.consumer.ConsumerRecord;
+import org.apache.kafka.clients.producer.ProducerRecord;
+import org.apache.kafka.common.header.Header;
+import org.apache.kafka.common.header.Headers;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.log.LogAccessor;
+import org.springframework.kafka.core.KafkaTemplate;
+import org.springframework.kafka.support.serializer.DeserializationException;
+import org.springframework.kafka.support.serializer.SerializationUtils;
+import org.springframework.stereotype.Component;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+/**
+ * Moves loan.applications records that could not be processed out of the way of the records
+ * behind them. A failed record goes to the next retry tier, where it waits out the tier's delay
+ * without holding up the main topic; after the last tier, or straight away if it cannot be
+ * decoded, it goes to the dead-letter topic. Retry state travels in record headers.
+ */
+@Component
+public class ApplicationEventRetryRouter {
+
+    public static final String TOPIC = "loan.applications";
+    public static final String DEAD_LETTER_TOPIC = TOPIC + ".dlt";
+    public static final List<Tier> TIERS = List.of(
+            new Tier(TOPIC + ".retry.1s", Duration.ofSeconds(1)),
+            new Tier(TOPIC + ".retry.10s", Duration.ofSeconds(10)),
+            new Tier(TOPIC + ".retry.1m", Duration.ofMinutes(1)));
+
+    public static final String ATTEMPTS_HEADER = "retry-attempts";
+    public static final String DUE_AT_HEADER = "retry-due-at";
+    public static final String ERROR_HEADER = "retry-error";
+    public static final String ORIGINAL_TOPIC_HEADER = "original-topic";
+    public static final String ORIGINAL_PARTITION_HEADER = "original-partition";
+    public static final String ORIGINAL_OFFSET_HEADER = "original-offset";
+
+    private static final LogAccessor LOG = new LogAccessor(ApplicationEventRetryRouter.class);
+
+    public record Tier(String topic, Duration delay) {
+    }
+
+    /**
+     * A record to route on. A null error means it was held back behind a failed record of the
+     * same key and follows that record to the same tier.
+     */
+    public record Failed(ConsumerRecord<String, ApplicationEvent> record, Exception error) {
+    }
+
+    private final KafkaTemplate<String, byte[]> kafkaTemplate;
+    private final ApplicationEventCodec eventCodec;
+    private final Duration sendTimeout;
+
+    public ApplicationEventRetryRouter(KafkaTemplate<String, byte[]> kafkaTemplate,
+                                       ApplicationEventCodec eventCodec,
+                                       @Value("${kafka.retry.send-timeout:PT10S}") Duration sendTimeout) {
+        this.kafkaTemplate = kafkaTemplate;
+        this.eventCodec = eventCodec;
+        this.sendTimeout = sendTimeout;
+    }
+
+    /**
+     * Method to hand records on to their next retry tier or the dead-letter topic, and wait until
+     * the broker has them. Records of one key keep their order.
+     * @throws IllegalStateException if a send fails, so the caller does not commit the records.
+     */
+    public void routeAll(List<Failed> failed) {
+        if (failed.isEmpty()) {
+            return;
+        }
+        List<CompletableFuture<?>> sends = new ArrayList<>(failed.size());
+        for (Failed item : failed) {
+            sends.add(kafkaTemplate.send(toRetryRecord(item)));
+        }
+        long deadline = System.nanoTime() + sendTimeout.toNanos();
+        try {
+            for (CompletableFuture<?> send : sends) {
+                send.get(Math.max(0, deadline - System.nanoTime()), TimeUnit.NANOSECONDS);
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while routing failed records", e);
+        } catch (ExecutionException | TimeoutException e) {
+            throw new IllegalStateException("Could not route failed records to the retry topics", e);
+        }
+    }
+
+    /**
+     * @return How long a record on a retry topic still has to wait before it is due, zero if due.
+     */
+    public static Duration remainingDelay(ConsumerRecord<?, ?> record) {
+        Header dueAt = record.headers().lastHeader(DUE_AT_HEADER);
+        if (dueAt == null) {
+            return Duration.ZERO;
+        }
+        long remaining = ByteBuffer.wrap(dueAt.value()).getLong() - System.currentTimeMillis();
+        return remaining > 0 ? Duration.ofMillis(remaining) : Duration.ZERO;
+    }
+
+    public static int attempts(ConsumerRecord<?, ?> record) {
+        Header attempts = record.headers().lastHeader(ATTEMPTS_HEADER);
+        return attempts == null ? 0 : ByteBuffer.wrap(attempts.value()).getInt();
+    }
+
+    private ProducerRecord<String, byte[]> toRetryRecord(Failed failed) {
+        ConsumerRecord<String, ApplicationEvent> record = failed.record();
+        int attempts = attempts(record) + 1;
+
+        byte[] value;
+        String contentType;
+        String error = failed.error() == null ? "Held back behind a failed event of the same application" : String.valueOf(failed.error());
+        boolean deadLetter = attempts > TIERS.size();
+        if (record.value() != null) {
+            value = eventCodec.encode(record.value());
+            contentType = eventCodec.contentType();
+        } else {
+            // Undecodable: retrying cannot help, keep the original bytes for inspection
+            DeserializationException cause = SerializationUtils.getExceptionFromHeader(record,
+                    SerializationUtils.VALUE_DESERIALIZER_EXCEPTION_HEADER, LOG);
+            value = cause == null ? null : cause.getData();
+            Header original = record.headers().lastHeader(ApplicationEventCodec.HEADER);
+            contentType = original == null ? null : new String(original.value(), StandardCharsets.UTF_8);
+            error = cause == null ? "Undecodable record" : String.valueOf(cause.getCause());
+            deadLetter = true;
+        }
+
+        String topic = deadLetter ? DEAD_LETTER_TOPIC : TIERS.get(attempts - 1).topic();
+        ProducerRecord<String, byte[]> retry = new ProducerRecord<>(topic, record.key(), value);
+        Headers headers = retry.headers();
+        copyHeader(record, headers, ApplicationEventCodec.EVENT_ID_HEADER);
+        if (contentType != null) {
+            headers.add(ApplicationEventCodec.HEADER, contentType.getBytes(StandardCharsets.UTF_8));
+        }
+        // Keep where the record first came from across tiers
+        if (record.headers().lastHeader(ORIGINAL_TOPIC_HEADER) == null) {
+            headers.add(ORIGINAL_TOPIC_HEADER, record.topic().getBytes(StandardCharsets.UTF_8));
+            headers.add(ORIGINAL_PARTITION_HEADER, ByteBuffer.allocate(4).putInt(record.partition()).array());
+            headers.add(ORIGINAL_OFFSET_HEADER, ByteBuffer.allocate(8).putLong(record.offset()).array());
+        } else {
+            copyHeader(record, headers, ORIGINAL_TOPIC_HEADER);
+            copyHeader(record, headers, ORIGINAL_PARTITION_HEADER);
+            copyHeader(record, headers, ORIGINAL_OFFSET_HEADER);
+        }
+        headers.add(ATTEMPTS_HEADER, ByteBuffer.allocate(4).putInt(attempts).array());
+        headers.add(ERROR_HEADER, (error.length() > 1000 ? error.substring(0, 1000) : error).getBytes(StandardCharsets.UTF_8));
+        if (!deadLetter) {
+            long dueAt = System.currentTimeMillis() + TIERS.get(attempts - 1).delay().toMillis();
+            headers.add(DUE_AT_HEADER, ByteBuffer.allocate(8).putLong(dueAt).array());
+        }
+        return retry;
+    }
+
+    private static void copyHeader(ConsumerRecord<?, ?> from, Headers to, String name) {
+        Header header = from.headers().lastHeader(name);
+        if (header != null) {
+            to.add(name, header.value());
+        }
+    }
+}
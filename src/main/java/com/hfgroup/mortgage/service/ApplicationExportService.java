@@ -0,0 +1,208 @@
+package com.hfgroup.mortgage.service;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.hfgroup.mortgage.Repository.ApplicationSpecifications;
+import com.hfgroup.mortgage.dto.request.ApplicationFilterDTO;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.sql.DataSource;
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+
+/**
+ * Streams applications matching a filter straight from a database cursor to an output stream.
+ * Rows are read fetchSize at a time inside a read-only transaction (the Postgres driver only uses
+ * a server-side cursor when autocommit is off) and written as they arrive, so heap use does not
+ * depend on how many rows are exported.
+ */
+@Service
+@Slf4j
+public class ApplicationExportService {
+
+    private static final String COLUMNS = "id, applicant_id, national_id, amount, status, created_at, updated_at";
+    private static final String[] HEADER = {"id", "applicantId", "nationalId", "amount", "status", "createdAt", "updatedAt"};
+
+    public enum Format {
+        NDJSON("application/x-ndjson", "ndjson"),
+        CSV("text/csv", "csv");
+
+        private final String contentType;
+        private final String extension;
+
+        Format(String contentType, String extension) {
+            this.contentType = contentType;
+            this.extension = extension;
+        }
+
+        public String getContentType() {
+            return contentType;
+        }
+
+        public String getExtension() {
+            return extension;
+        }
+    }
+
+    private final NamedParameterJdbcTemplate jdbcTemplate;
+    private final TransactionTemplate readOnlyTransaction;
+    private final ObjectMapper objectMapper;
+
+    public ApplicationExportService(DataSource dataSource, PlatformTransactionManager transactionManager, ObjectMapper objectMapper,
+                                    @Value("${export.fetch-size:1000}") int fetchSize) {
+        // Own JdbcTemplate so the fetch size does not leak into other JDBC users
+        JdbcTemplate template = new JdbcTemplate(dataSource);
+        template.setFetchSize(fetchSize);
+        this.jdbcTemplate = new NamedParameterJdbcTemplate(template);
+        this.readOnlyTransaction = new TransactionTemplate(transactionManager);
+        this.readOnlyTransaction.setReadOnly(true);
+        this.objectMapper = objectMapper;
+    }
+
+    /**
+     * Method to write every application matching the filter to the given stream, oldest first.
+     * @param filterDTO The filter criteria; page and size are ignored.
+     * @param format The output format.
+     * @param out The stream to write to; it is flushed but not closed.
+     * @return The number of rows written.
+     */
+    public long export(ApplicationFilterDTO filterDTO, Format format, OutputStream out) throws IOException {
+        MapSqlParameterSource params = new MapSqlParameterSource();
+        String sql = "SELECT " + COLUMNS + " FROM applications" + ApplicationSpecifications.sqlWhere(filterDTO, params) + " ORDER BY created_at, id";
+
+        Writer writer = new BufferedWriter(new OutputStreamWriter(out, StandardCharsets.UTF_8), 64 * 1024);
+        RowWriter rowWriter = format == Format.CSV ? new CsvRowWriter(writer) : new NdjsonRowWriter(writer);
+
+        long[] rows = {0};
+        try {
+            rowWriter.start();
+            readOnlyTransaction.executeWithoutResult(status -> jdbcTemplate.query(sql, params, (RowCallbackHandler) resultSet -> {
+                try {
+                    rowWriter.write(resultSet);
+                    rows[0]++;
+                } catch (IOException e) {
+                    // Client went away; abort the query instead of draining the cursor
+                    throw new UncheckedIOException(e);
+                }
+            }));
+            rowWriter.finish();
+            writer.flush();
+        } catch (UncheckedIOException e) {
+            throw e.getCause();
+        }
+        log.info("Exported {} applications as {}", rows[0], format);
+        return rows[0];
+    }
+
+    private interface RowWriter {
+        default void start() throws IOException {
+        }
+
+        void write(ResultSet row) throws SQLException, IOException;
+
+        default void finish() throws IOException {
+        }
+    }
+
+    private final class NdjsonRowWriter implements RowWriter {
+        private final Writer writer;
+        private JsonGenerator json;
+
+        private NdjsonRowWriter(Writer writer) {
+            this.writer = writer;
+        }
+
+        @Override
+        public void start() throws IOException {
+            // One generator for the whole export. It must neither close nor flush the writer, so
+            // output reaches the client in buffer-sized writes rather than once per row.
+            json = objectMapper.getFactory().createGenerator(writer);
+            json.disable(JsonGenerator.Feature.AUTO_CLOSE_TARGET);
+            json.disable(JsonGenerator.Feature.FLUSH_PASSED_TO_STREAM);
+            // Lines are terminated explicitly below instead of separated by the default space
+            json.setRootValueSeparator(null);
+        }
+
+        @Override
+        public void write(ResultSet row) throws SQLException, IOException {
+            json.writeStartObject();
+            json.writeStringField(HEADER[0], row.getString(1));
+            json.writeStringField(HEADER[1], row.getString(2));
+            json.writeStringField(HEADER[2], row.getString(3));
+            json.writeNumberField(HEADER[3], row.getDouble(4));
+            json.writeStringField(HEADER[4], row.getString(5));
+            json.writeStringField(HEADER[5], timestamp(row.getTimestamp(6)));
+            json.writeStringField(HEADER[6], timestamp(row.getTimestamp(7)));
+            json.writeEndObject();
+            json.writeRaw('\n');
+        }
+
+        @Override
+        public void finish() throws IOException {
+            // Hands what the generator still buffers to the writer; the caller flushes the writer
+            json.close();
+        }
+    }
+
+    private static final class CsvRowWriter implements RowWriter {
+        private final Writer writer;
+
+        private CsvRowWriter(Writer writer) {
+            this.writer = writer;
+        }
+
+        @Override
+        public void start() throws IOException {
+            writer.write(String.join(",", HEADER));
+            writer.write("\r\n");
+        }
+
+        @Override
+        public void write(ResultSet row) throws SQLException, IOException {
+            writer.write(row.getString(1));
+            writer.write(',');
+            writer.write(row.getString(2));
+            writer.write(',');
+            writer.write(escape(row.getString(3)));
+            writer.write(',');
+            writer.write(Double.toString(row.getDouble(4)));
+            writer.write(',');
+            writer.write(escape(row.getString(5)));
+            writer.write(',');
+            writer.write(timestamp(row.getTimestamp(6)));
+            writer.write(',');
+            writer.write(timestamp(row.getTimestamp(7)));
+            writer.write("\r\n");
+        }
+
+        private static String escape(String value) {
+            if (value == null) {
+                return "";
+            }
+            if (value.indexOf(',') < 0 && value.indexOf('"') < 0 && value.indexOf('\n') < 0 && value.indexOf('\r') < 0) {
+                return value;
+            }
+            return '"' + value.replace("\"", "\"\"") + '"';
+        }
+    }
+
+    private static String timestamp(Timestamp value) {
+        return value == null ? "" : value.toLocalDateTime().toString();
+    }
+}
@@ -1,57 +1,75 @@
 package com.hfgroup.mortgage.service;
 
 import com.hfgroup.mortgage.Repository.ApplicationRepository;
-import com.hfgroup.mortgage.Repository.DecisionRepository;
+import com.hfgroup.mortgage.Repository.ApplicationSpecifications;
+import com.hfgroup.mortgage.Repository.DecisionJdbcRepository;
 import com.hfgroup.mortgage.Repository.DocumentRepository;
-import com.hfgroup.mortgage.Repository.UserRepository;
 import com.hfgroup.mortgage.dto.request.ApplicationDTO;
 import com.hfgroup.mortgage.dto.request.ApplicationFilterDTO;
+import com.hfgroup.mortgage.dto.request.ApplicationUpdateDTO;
+import com.hfgroup.mortgage.dto.request.BulkDecisionDTO;
 import com.hfgroup.mortgage.dto.request.DecisionDTO;
+import com.hfgroup.mortgage.dto.response.ApplicationView;
+import com.hfgroup.mortgage.dto.response.BulkDecisionResultDTO;
+import com.hfgroup.mortgage.dto.response.CursorPageDTO;
+import com.hfgroup.mortgage.dto.response.DocumentView;
+import com.hfgroup.mortgage.dto.response.Versioned;
+import com.hfgroup.mortgage.event.ApplicationCreated;
+import com.hfgroup.mortgage.event.ApplicationEvent;
+import com.hfgroup.mortgage.event.ApplicationUpdated;
+import com.hfgroup.mortgage.event.DecisionMade;
+import com.hfgroup.mortgage.exception.ApplicationNotEditableException;
 import com.hfgroup.mortgage.exception.ApplicationNotFoundException;
 import com.hfgroup.mortgage.exception.DecisionAlreadyExistsException;
+import com.hfgroup.mortgage.exception.VersionConflictException;
 import com.hfgroup.mortgage.model.Application;
 import com.hfgroup.mortgage.model.Decision;
 import com.hfgroup.mortgage.model.Document;
-import com.hfgroup.mortgage.security.JwtTokenProvider;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.dao.OptimisticLockingFailureException;
 import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.jpa.domain.Specification;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
-import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.Set;
 import java.util.UUID;
+import java.util.function.Supplier;
 import java.util.stream.Collectors;
 
 @Service
 public class ApplicationService {
 
+    private static final Sort NEWEST_FIRST = Sort.by(Sort.Order.desc("createdAt"), Sort.Order.desc("id"));
+
     private final ApplicationRepository applicationRepository;
-    private final DecisionRepository decisionRepository;
-    private final JwtTokenProvider jwtTokenProvider;
-    private final UserRepository userRepository;
     private final DocumentRepository documentRepository;
-    private final KafkaProducerService kafkaProducerService;
+    private final OutboxService outboxService;
+    private final ApplicationAccessAuditor applicationAccessAuditor;
+    private final ApplicationDetailCache applicationDetailCache;
+    private final ApplicationEventPublisher eventPublisher;
+    private final DecisionJdbcRepository decisionJdbcRepository;
+    private final OptimisticRetryTemplate optimisticRetry;
 
-    public ApplicationService(ApplicationRepository applicationRepository, DecisionRepository decisionRepository, JwtTokenProvider jwtTokenProvider, UserRepository userRepository, DocumentRepository documentRepository, KafkaProducerService kafkaProducerService) {
+    public ApplicationService(ApplicationRepository applicationRepository, DocumentRepository documentRepository, OutboxService outboxService, ApplicationAccessAuditor applicationAccessAuditor, ApplicationDetailCache applicationDetailCache, ApplicationEventPublisher eventPublisher, DecisionJdbcRepository decisionJdbcRepository, OptimisticRetryTemplate optimisticRetry) {
         this.applicationRepository = applicationRepository;
-        this.decisionRepository = decisionRepository;
-        this.jwtTokenProvider = jwtTokenProvider;
-        this.userRepository = userRepository;
         this.documentRepository = documentRepository;
-        this.kafkaProducerService = kafkaProducerService;
-    }
-
-    private <T> Object buildEventPayload(String eventType, T data) {
-        return new Object() {
-            public final String event = eventType;  // "CREATE", "UPDATE", "DELETE"
-            public final String traceId = UUID.randomUUID().toString();
-            public final String version = "1.0";
-            public final String timestamp = LocalDateTime.now().toString();
-            public final T payload = data;
-        };
+        this.outboxService = outboxService;
+        this.applicationAccessAuditor = applicationAccessAuditor;
+        this.applicationDetailCache = applicationDetailCache;
+        this.eventPublisher = eventPublisher;
+        this.decisionJdbcRepository = decisionJdbcRepository;
+        this.optimisticRetry = optimisticRetry;
     }
 
     /**
@@ -59,6 +77,7 @@ public class ApplicationService {
      * @param applicationDTO DTO received from the controller.
      * @return The saved Application entity.
      */
+    @Transactional
     public Application createApplication(ApplicationDTO applicationDTO) {
         // Save the application
         Application application = new Application();
@@ -85,11 +104,11 @@ public class ApplicationService {
             documentRepository.saveAll(documents);
             savedApplication.setDocuments(documents);
         }
-        kafkaProducerService.publishMessage(
-                "loan.applications",
-                savedApplication.getId(),
-                buildEventPayload("CREATE", savedApplication)
-        );
+        List<DocumentView> documentViews = savedApplication.getDocuments() == null ? List.of() : savedApplication.getDocuments().stream()
+                .map(document -> DocumentView.from(document, savedApplication.getId()))
+                .toList();
+        outboxService.enqueue("loan.applications",
+                ApplicationCreated.from(ApplicationView.from(savedApplication, documentViews)));
         return savedApplication;
     }
 
@@ -98,103 +117,254 @@ public class ApplicationService {
      * @param id The application ID.
      * @return Optional containing the application if found.
      */
-    public Optional<Application> getApplicationById(UUID id) {
-        Optional<Application> application = applicationRepository.findById(id);
-        kafkaProducerService.publishMessage(
-                "loan.applications",
-                application.get().getId(),
-                buildEventPayload("UPDATE", application)
-        );
+    public Optional<ApplicationView> getApplicationById(UUID id) {
+        Optional<ApplicationView> application = applicationDetailCache.get(id, this::loadApplicationView);
+        application.ifPresent(found -> applicationAccessAuditor.recordAccess(found.id()));
         return application;
     }
 
+    // findById fetches the documents in the same query through its entity graph
+    private Optional<ApplicationView> loadApplicationView(UUID id) {
+        return applicationRepository.findById(id)
+                .map(found -> ApplicationView.from(found, found.getDocuments().stream()
+                        .map(document -> DocumentView.from(document, found.getId()))
+                        .toList()));
+    }
+
     /**
      * Method to get applications with filters.
      * @param filterDTO The filter criteria.
      * @return Page of applications matching the criteria.
      */
-    public Page<Application> getApplicationsWithFilters(ApplicationFilterDTO filterDTO) {
-        Pageable pageable = PageRequest.of(filterDTO.getPage(), filterDTO.getSize());
-        
-        String status = filterDTO.getStatus();
-        String nationalId = filterDTO.getNationalId();
-        LocalDateTime createdFrom = filterDTO.getCreatedFrom();
-        LocalDateTime createdTo = filterDTO.getCreatedTo();
-
-        // Determine which repository method to use based on provided filters
-        if (status != null && nationalId != null && createdFrom != null && createdTo != null) {
-            return applicationRepository.findByStatusAndNationalIdAndCreatedAtBetween(status, nationalId, createdFrom, createdTo, pageable);
-        } else if (status != null && nationalId != null) {
-            return applicationRepository.findByStatusAndNationalId(status, nationalId, pageable);
-        } else if (status != null && createdFrom != null && createdTo != null) {
-            return applicationRepository.findByStatusAndCreatedAtBetween(status, createdFrom, createdTo, pageable);
-        } else if (nationalId != null && createdFrom != null && createdTo != null) {
-            return applicationRepository.findByNationalIdAndCreatedAtBetween(nationalId, createdFrom, createdTo, pageable);
-        } else if (status != null) {
-            return applicationRepository.findByStatus(status, pageable);
-        } else if (nationalId != null) {
-            return applicationRepository.findByNationalId(nationalId, pageable);
-        } else if (createdFrom != null && createdTo != null) {
-            return applicationRepository.findByCreatedAtBetween(createdFrom, createdTo, pageable);
-        } else {
-            // No filters provided, return all applications
-
-            return applicationRepository.findAll(pageable);
-        }
+    @Transactional(readOnly = true)
+    public Page<ApplicationView> getApplicationsWithFilters(ApplicationFilterDTO filterDTO) {
+        // Newest first, with id as a tie-breaker so pages are stable when timestamps collide
+        Pageable pageable = PageRequest.of(filterDTO.getPage(), filterDTO.getSize(), NEWEST_FIRST);
+        Page<Application> applications = applicationRepository.findAll(ApplicationSpecifications.matching(filterDTO), pageable);
+        return new PageImpl<>(toViews(applications.getContent()), pageable, applications.getTotalElements());
     }
     
+    /**
+     * Method to get applications with filters using keyset pagination, newest first. Unlike
+     * {@link #getApplicationsWithFilters} this never uses OFFSET or runs a count unless asked to,
+     * so the cost of a page does not grow with how deep the caller has paged.
+     * @param filterDTO The filter criteria; page is ignored, size is the page size.
+     * @param cursor The nextCursor of the previous page, or null for the first page.
+     * @param includeTotal Whether to add an approximate total to the page.
+     * @return The page and the cursor of the next one.
+     */
+    @Transactional(readOnly = true)
+    public CursorPageDTO<ApplicationView> getApplicationsKeyset(ApplicationFilterDTO filterDTO, String cursor, boolean includeTotal) {
+        int size = Math.max(1, filterDTO.getSize());
+        Specification<Application> spec = ApplicationSpecifications.matching(filterDTO);
+        if (cursor != null && !cursor.isBlank()) {
+            ApplicationCursor position = ApplicationCursor.decode(cursor);
+            spec = spec.and(ApplicationSpecifications.before(position.createdAt(), position.id()));
+        }
+
+        // Fetch one extra row to learn whether there is a next page without counting
+        List<Application> rows = applicationRepository.findBy(spec, query -> query
+                .sortBy(NEWEST_FIRST)
+                .limit(size + 1)
+                .all());
+
+        String nextCursor = null;
+        if (rows.size() > size) {
+            rows = rows.subList(0, size);
+            Application last = rows.get(size - 1);
+            nextCursor = new ApplicationCursor(last.getCreatedAt(), last.getId()).encode();
+        }
+
+        Long total = includeTotal ? estimateTotal(filterDTO) : null;
+        return new CursorPageDTO<>(toViews(rows), size, nextCursor, total);
+    }
+
+    // Unfiltered listings use the planner's estimate instead of count(*) over the whole table
+    private long estimateTotal(ApplicationFilterDTO filterDTO) {
+        if (ApplicationSpecifications.isUnfiltered(filterDTO)) {
+            long estimate = applicationRepository.estimateRowCount();
+            if (estimate >= 0) {
+                return estimate;
+            }
+        }
+        return applicationRepository.count(ApplicationSpecifications.matching(filterDTO));
+    }
+
     /**
      * Method to get all applications without filters.
      * @param page Page number.
      * @param size Page size.
      * @return Page of all applications.
      */
-    public Page<Application> getAllApplications(Integer page, Integer size) {
-        Page<Application> applications = applicationRepository.findAll(PageRequest.of(page, size));
-        return applications;
+    @Transactional(readOnly = true)
+    public Page<ApplicationView> getAllApplications(Integer page, Integer size) {
+        Pageable pageable = PageRequest.of(page, size, NEWEST_FIRST);
+        Page<Application> applications = applicationRepository.findAll(pageable);
+        return new PageImpl<>(toViews(applications.getContent()), pageable, applications.getTotalElements());
+    }
+
+    // Loads the documents of the whole page in one IN query instead of one lazy load per row
+    private List<ApplicationView> toViews(List<Application> applications) {
+        if (applications.isEmpty()) {
+            return List.of();
+        }
+        Map<UUID, List<DocumentView>> documentsByApplication = documentRepository
+                .findViewsByApplicationIdIn(applications.stream().map(Application::getId).toList())
+                .stream()
+                .collect(Collectors.groupingBy(DocumentView::applicationId));
+        return applications.stream()
+                .map(application -> ApplicationView.from(application,
+                        documentsByApplication.getOrDefault(application.getId(), List.of())))
+                .toList();
     }
 
     /**
-     * Method to create a decision for an application.
+     * Method to create a decision for an application. The status change and the decision insert
+     * are one conditional statement, so a concurrent duplicate decision is rejected by the database.
      * @param applicationId The application ID.
      * @param decisionDTO The decision details.
-     * @param authorizationHeader The authorization header containing the JWT token.
-     * @return The created decision.
+     * @param approverId The authenticated officer making the decision.
+     * @param expectedVersion The application version the officer decided on (If-Match), or null.
+     * @return The created decision and the new application version.
      */
     @Transactional
-    public Decision createDecision(UUID applicationId, DecisionDTO decisionDTO, String authorizationHeader) {
-        // Check if application exists
-        Application application = applicationRepository.findById(applicationId)
-                .orElseThrow(() -> new ApplicationNotFoundException("Application not found with ID: " + applicationId));
+    public Versioned<Decision> createDecision(UUID applicationId, DecisionDTO decisionDTO, UUID approverId, Long expectedVersion) {
+        // Validate decision status
+        if (!"APPROVED".equals(decisionDTO.getDecision()) && !"REJECTED".equals(decisionDTO.getDecision())) {
+            throw new RuntimeException("Decision must be either 'APPROVED' or 'REJECTED'");
+        }
 
-        // Check if decision already exists for this application
-        if (decisionRepository.findByApplicationId(applicationId).isPresent()) {
+        DecisionJdbcRepository.DecisionOutcome outcome = decisionJdbcRepository.decideAll(approverId, List.of(
+                new DecisionJdbcRepository.DecisionCommand(applicationId, decisionDTO.getDecision(), decisionDTO.getComment(), expectedVersion)))
+                .get(0);
+        if (!outcome.found()) {
+            throw new ApplicationNotFoundException("Application not found with ID: " + applicationId);
+        }
+        if (!outcome.applied()) {
+            if ("PENDING".equals(outcome.currentStatus()) && expectedVersion != null && !expectedVersion.equals(outcome.currentVersion())) {
+                throw new VersionConflictException("Application " + applicationId + " has changed since version " + expectedVersion, outcome.currentVersion());
+            }
             throw new DecisionAlreadyExistsException("Decision already exists for application: " + applicationId);
         }
 
-        // Validate decision status
-        if (!"APPROVED".equals(decisionDTO.getDecision()) && !"REJECTED".equals(decisionDTO.getDecision())) {
-            throw new RuntimeException("Decision must be either 'APPROVED' or 'REJECTED'");
+        Decision savedDecision = toDecision(outcome, approverId);
+        eventPublisher.publishEvent(new ApplicationChangedEvent(applicationId));
+        outboxService.enqueue("loan.applications", DecisionMade.from(savedDecision, outcome.currentVersion()));
+        return new Versioned<>(savedDecision, outcome.currentVersion());
+    }
+
+    /**
+     * Method to let an applicant edit their own application while it is still PENDING.
+     * With an expected version the edit applies only to that version, and a concurrent change is
+     * reported as a conflict. Without one the edit is re-applied on top of concurrent changes.
+     * @param applicationId The application ID.
+     * @param updateDTO The fields to change.
+     * @param applicantId The authenticated applicant; other applicants' applications are not found.
+     * @param expectedVersion The version the client edited (If-Match), or null.
+     * @return The updated application.
+     */
+    public ApplicationView updateApplication(UUID applicationId, ApplicationUpdateDTO updateDTO, UUID applicantId, Long expectedVersion) {
+        Supplier<ApplicationView> update = () -> {
+            Application application = applicationRepository.findById(applicationId)
+                    .filter(found -> found.getApplicantId().equals(applicantId))
+                    .orElseThrow(() -> new ApplicationNotFoundException("Application not found with ID: " + applicationId));
+            if (expectedVersion != null && !expectedVersion.equals(application.getVersion())) {
+                throw new VersionConflictException("Application " + applicationId + " has changed since version " + expectedVersion, application.getVersion());
+            }
+            if (!"PENDING".equals(application.getStatus())) {
+                throw new ApplicationNotEditableException("Application " + applicationId + " is " + application.getStatus() + " and can no longer be edited");
+            }
+            if (updateDTO.getNationalId() != null) {
+                application.setNationalId(updateDTO.getNationalId());
+            }
+            if (updateDTO.getAmount() != null) {
+                application.setAmount(updateDTO.getAmount());
+            }
+
+            // Flush inside the transaction so the versioned UPDATE runs, and conflicts surface, here
+            Application saved = applicationRepository.saveAndFlush(application);
+            ApplicationView view = ApplicationView.from(saved, saved.getDocuments().stream()
+                    .map(document -> DocumentView.from(document, saved.getId()))
+                    .toList());
+            eventPublisher.publishEvent(new ApplicationChangedEvent(applicationId));
+            outboxService.enqueue("loan.applications", ApplicationUpdated.from(view));
+            return view;
+        };
+
+        try {
+            return expectedVersion == null ? optimisticRetry.execute(update) : optimisticRetry.executeOnce(update);
+        } catch (OptimisticLockingFailureException e) {
+            long currentVersion = applicationRepository.findVersionById(applicationId).orElse(0L);
+            throw new VersionConflictException("Application " + applicationId + " was modified concurrently", currentVersion);
         }
-        String username = jwtTokenProvider.getUsernameFromToken(authorizationHeader.replace("Bearer ", ""));
-       UUID  approverId = userRepository.findByUsername(username).get().getId();
-        // Create decision
-        Decision decision = Decision.builder()
-                .applicationId(applicationId)
-                .approverId(approverId)
-                .decision(decisionDTO.getDecision())
-                .comment(decisionDTO.getComment())
-                .build();
+    }
 
-        Decision savedDecision = decisionRepository.save(decision);
+    /**
+     * Method to apply many decisions in one transaction with a single set-based statement.
+     * Invalid items are reported without touching the database; the rest are applied only where
+     * the application is still PENDING and undecided.
+     * @param bulkDecisionDTO The decisions, at most one per application.
+     * @param approverId The authenticated officer.
+     * @return The outcome for each item, in request order.
+     */
+    @Transactional
+    public BulkDecisionResultDTO createDecisions(BulkDecisionDTO bulkDecisionDTO, UUID approverId) {
+        List<BulkDecisionDTO.Item> items = bulkDecisionDTO.getDecisions();
+        BulkDecisionResultDTO.Outcome[] outcomes = new BulkDecisionResultDTO.Outcome[items.size()];
+        List<Integer> positions = new ArrayList<>();
+        List<DecisionJdbcRepository.DecisionCommand> commands = new ArrayList<>();
+        Set<UUID> seen = new HashSet<>();
 
-        // Update application status
-        application.setStatus(decisionDTO.getDecision());
-        applicationRepository.save(application);
-        kafkaProducerService.publishMessage(
-                "loan.applications",
-                savedDecision.getId(),
-                buildEventPayload("UPDATE", savedDecision)
-        );        return savedDecision;
+        for (int i = 0; i < items.size(); i++) {
+            BulkDecisionDTO.Item item = items.get(i);
+            String error = null;
+            if (item.getApplicationId() == null) {
+                error = "applicationId is required";
+            } else if (!"APPROVED".equals(item.getDecision()) && !"REJECTED".equals(item.getDecision())) {
+                error = "Decision must be either 'APPROVED' or 'REJECTED'";
+            } else if (!seen.add(item.getApplicationId())) {
+                error = "Duplicate application id in request";
+            }
+            if (error != null) {
+                outcomes[i] = new BulkDecisionResultDTO.Outcome(item.getApplicationId(), BulkDecisionResultDTO.Status.INVALID, null, error);
+            } else {
+                positions.add(i);
+                commands.add(new DecisionJdbcRepository.DecisionCommand(item.getApplicationId(), item.getDecision(), item.getComment(), null));
+            }
+        }
+
+        List<DecisionJdbcRepository.DecisionOutcome> results = commands.isEmpty() ? List.of() : decisionJdbcRepository.decideAll(approverId, commands);
+        List<ApplicationEvent> events = new ArrayList<>();
+        int applied = 0;
+        for (int j = 0; j < results.size(); j++) {
+            DecisionJdbcRepository.DecisionOutcome result = results.get(j);
+            BulkDecisionResultDTO.Status status;
+            if (result.applied()) {
+                status = BulkDecisionResultDTO.Status.APPLIED;
+                applied++;
+                eventPublisher.publishEvent(new ApplicationChangedEvent(result.applicationId()));
+                events.add(DecisionMade.from(toDecision(result, approverId), result.currentVersion()));
+            } else {
+                status = result.found() ? BulkDecisionResultDTO.Status.ALREADY_DECIDED : BulkDecisionResultDTO.Status.NOT_FOUND;
+            }
+            outcomes[positions.get(j)] = new BulkDecisionResultDTO.Outcome(result.applicationId(), status, result.decisionId(), null);
+        }
+
+        // Recorded with the decisions, so the relay publishes them only if they commit
+        if (!events.isEmpty()) {
+            outboxService.enqueueAll("loan.applications", events);
+        }
+        return new BulkDecisionResultDTO(applied, Arrays.asList(outcomes));
+    }
+
+    private static Decision toDecision(DecisionJdbcRepository.DecisionOutcome outcome, UUID approverId) {
+        return Decision.builder()
+                .id(outcome.decisionId())
+                .applicationId(outcome.applicationId())
+                .approverId(approverId)
+                .decision(outcome.decision())
+                .comment(outcome.comment())
+                .createdAt(outcome.createdAt())
+                .build();
     }
-}
\ No newline at end of file
+}
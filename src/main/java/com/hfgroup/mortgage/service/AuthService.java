@@ -3,6 +3,8 @@ package com.hfgroup.mortgage.service;
 import com.hfgroup.mortgage.dto.request.LoginRequestDTO;
 import com.hfgroup.mortgage.dto.response.LoginResponseDTO;
 import com.hfgroup.mortgage.exception.AuthenticationException;
+import com.hfgroup.mortgage.exception.TooManyRequestsException;
+import com.hfgroup.mortgage.security.JwtClaims;
 import com.hfgroup.mortgage.security.JwtTokenProvider;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
@@ -20,6 +22,7 @@ public class AuthService {
 
     private final AuthenticationManager authenticationManager;
     private final JwtTokenProvider tokenProvider;
+    private final TokenRevocationService tokenRevocationService;
 
     public LoginResponseDTO login(LoginRequestDTO loginRequest) {
         try {
@@ -43,9 +46,25 @@ public class AuthService {
         } catch (BadCredentialsException e) {
             log.error("Invalid credentials for user: {}", loginRequest.getUsername());
             throw new AuthenticationException("Invalid username or password");
+        } catch (TooManyRequestsException e) {
+            log.warn("Login shed for user {}: {}", loginRequest.getUsername(), e.getMessage());
+            throw e;
         } catch (Exception e) {
             log.error("Authentication error for user: {}", loginRequest.getUsername(), e);
             throw new AuthenticationException("Authentication failed", e);
         }
     }
+
+    /**
+     * Method to revoke the presented token before it expires.
+     * @param token The raw JWT taken from the Authorization header.
+     */
+    public void logout(String token) {
+        JwtClaims claims = tokenProvider.parseToken(token)
+                .orElseThrow(() -> new AuthenticationException("Invalid or expired token"));
+        if (claims.tokenId() == null) {
+            throw new AuthenticationException("Token cannot be revoked individually, please sign in again");
+        }
+        tokenRevocationService.revoke(claims.tokenId(), claims.expiresAt());
+    }
 }
@@ -1,22 +1,88 @@
 package com.hfgroup.mortgage.service;
 
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
 import com.hfgroup.mortgage.Repository.UserRepository;
 import com.hfgroup.mortgage.model.User;
 import com.hfgroup.mortgage.security.UserPrincipal;
-import lombok.RequiredArgsConstructor;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.security.core.userdetails.UserDetails;
+import org.springframework.security.core.userdetails.UserDetailsPasswordService;
 import org.springframework.security.core.userdetails.UserDetailsService;
 import org.springframework.security.core.userdetails.UsernameNotFoundException;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
 
+import java.time.Duration;
+
+/**
+ * Loads users for authentication through a bounded, expiring cache of ready-made principals.
+ * Writers must call {@link #evict(String)} so role and password changes are seen immediately.
+ * Also receives re-hashed passwords from Spring Security when the configured BCrypt strength changes.
+ */
 @Service
-@RequiredArgsConstructor
-public class CustomUserDetailsService implements UserDetailsService {
+public class CustomUserDetailsService implements UserDetailsService, UserDetailsPasswordService {
 
     private final UserRepository userRepository;
+    private final Cache<String, UserPrincipal> principalCache;
+
+    public CustomUserDetailsService(UserRepository userRepository,
+                                    MeterRegistry meterRegistry,
+                                    @Value("${security.user-cache.maximum-size:10000}") long maximumSize,
+                                    @Value("${security.user-cache.expire-after-write:PT5M}") Duration expireAfterWrite) {
+        this.userRepository = userRepository;
+        this.principalCache = Caffeine.newBuilder()
+                .maximumSize(maximumSize)
+                .expireAfterWrite(expireAfterWrite)
+                .recordStats()
+                .build();
+        CaffeineCacheMetrics.monitor(meterRegistry, principalCache, "users");
+    }
 
     @Override
     public UserDetails loadUserByUsername(String username) throws UsernameNotFoundException {
+        return principalCache.get(username, this::loadPrincipal);
+    }
+
+    /**
+     * Called after a successful login whose stored hash used an outdated cost factor.
+     */
+    @Override
+    @Transactional
+    public UserDetails updatePassword(UserDetails userDetails, String newPassword) {
+        User user = userRepository.findByUsername(userDetails.getUsername())
+                .orElseThrow(() -> new UsernameNotFoundException("User not found with username: " + userDetails.getUsername()));
+
+        user.setPassword(newPassword);
+        User savedUser = userRepository.save(user);
+        evict(savedUser.getUsername());
+
+        return UserPrincipal.create(savedUser);
+    }
+
+    /**
+     * Method to drop a cached user after it has been written.
+     * When called inside a transaction the entry is dropped again after commit,
+     * so a concurrent read cannot re-cache the old row.
+     * @param username The username of the changed user.
+     */
+    public void evict(String username) {
+        principalCache.invalidate(username);
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    principalCache.invalidate(username);
+                }
+            });
+        }
+    }
+
+    private UserPrincipal loadPrincipal(String username) {
         User user = userRepository.findByUsername(username)
                 .orElseThrow(() -> new UsernameNotFoundException("User not found with username: " + username));
 
@@ -0,0 +1,72 @@
+package com.hfgroup.mortgage.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.hfgroup.mortgage.Repository.DeadLetterJdbcRepository;
+import com.hfgroup.mortgage.dto.response.CursorPageDTO;
+import com.hfgroup.mortgage.dto.response.DeadLetterView;
+import com.hfgroup.mortgage.event.ApplicationEvent;
+import com.hfgroup.mortgage.event.ApplicationEventDeserializer;
+import com.hfgroup.mortgage.event.BinaryApplicationEventCodec;
+import com.hfgroup.mortgage.event.JsonApplicationEventCodec;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.List;
+
+/**
+ * Inspection and replay of dead-lettered loan.applications events. A replay writes the stored
+ * payload back to the outbox, so {@link OutboxRelay} republishes it to loan.applications with its
+ * original key and event id.
+ */
+@Service
+@Slf4j
+public class DeadLetterService {
+
+    private final DeadLetterJdbcRepository deadLetterJdbcRepository;
+    private final ApplicationEventDeserializer deserializer;
+
+    public DeadLetterService(DeadLetterJdbcRepository deadLetterJdbcRepository, ObjectMapper objectMapper) {
+        this.deadLetterJdbcRepository = deadLetterJdbcRepository;
+        this.deserializer = new ApplicationEventDeserializer(new BinaryApplicationEventCodec(),
+                List.of(new BinaryApplicationEventCodec(), new JsonApplicationEventCodec(objectMapper)));
+    }
+
+    /**
+     * Method to list dead letters oldest first.
+     * @param afterId The nextCursor of the previous page, or null for the first page.
+     */
+    public CursorPageDTO<DeadLetterView> getDeadLetters(Long afterId, int limit, boolean includeReplayed) {
+        List<DeadLetterView> content = deadLetterJdbcRepository.findPage(afterId == null ? 0 : afterId, limit, includeReplayed)
+                .stream().map(this::toView).toList();
+        String nextCursor = content.size() < limit ? null : String.valueOf(content.get(content.size() - 1).id());
+        return new CursorPageDTO<>(content, content.size(), nextCursor, null);
+    }
+
+    /**
+     * Method to republish dead letters. Ids that do not exist or were already replayed are ignored.
+     * @return How many were queued for republishing.
+     */
+    @Transactional
+    public int replay(List<Long> ids) {
+        return deadLetterJdbcRepository.replay(ids, ApplicationEventRetryRouter.TOPIC);
+    }
+
+    private DeadLetterView toView(DeadLetterJdbcRepository.DeadLetter deadLetter) {
+        return new DeadLetterView(deadLetter.id(), deadLetter.originalTopic(), deadLetter.originalPartition(),
+                deadLetter.originalOffset(), deadLetter.key(), deadLetter.eventId(), deadLetter.contentType(),
+                deadLetter.attempts(), deadLetter.error(), deadLetter.failedAt(), deadLetter.replayedAt(), decode(deadLetter));
+    }
+
+    private ApplicationEvent decode(DeadLetterJdbcRepository.DeadLetter deadLetter) {
+        if (deadLetter.payload() == null) {
+            return null;
+        }
+        try {
+            return deserializer.decode(deadLetter.contentType(), deadLetter.payload());
+        } catch (RuntimeException e) {
+            log.debug("Dead letter {} cannot be decoded: {}", deadLetter.id(), e.getMessage());
+            return null;
+        }
+    }
+}
@@ -1,38 +1,253 @@
 package com.hfgroup.mortgage.service;
 
+import com.hfgroup.mortgage.Repository.DeadLetterJdbcRepository;
+import com.hfgroup.mortgage.event.ApplicationEvent;
+import com.hfgroup.mortgage.event.ApplicationEventCodec;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.apache.kafka.clients.consumer.ConsumerRecord;
+import org.apache.kafka.common.TopicPartition;
+import org.apache.kafka.common.header.Header;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.kafka.annotation.KafkaListener;
+import org.springframework.kafka.listener.ConsumerSeekAware;
+import org.springframework.kafka.support.Acknowledgment;
 import org.springframework.stereotype.Service;
 
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Batch listeners for the application topics. Each listener handles everything one poll returned
+ * and acknowledges the batch afterwards, so offsets only move past processed records; if
+ * processing throws, the batch is redelivered with a growing back-off until it goes through, see
+ * KafkaConfig. Container concurrency is set per topic with
+ * kafka.consumer.concurrency.*, up to the topic's partition count. loan.applications events are
+ * additionally processed in parallel by application id inside each batch, see
+ * {@link KeyOrderedBatchProcessor}. Events that fail are handed to the retry topics, and after
+ * the last one to the dead-letter topic, see {@link ApplicationEventRetryRouter}, so one bad
+ * event does not hold up its partition. Dead letters are stored in dead_letter_events.
+ * Redelivered events are recognised by their event id and skipped, see {@link ProcessedEventStore},
+ * which catches up on ids stored elsewhere whenever partitions are assigned.
+ * Records and batch sizes are counted per topic in kafka.listener.records and
+ * kafka.listener.batch.size; client lag metrics come from the consumer factories.
+ */
 @Service
-public class KafkaConsumerService {
+@Slf4j
+public class KafkaConsumerService implements ConsumerSeekAware {
+
+    private static final String GROUP = "application-group";
+
+    private final MeterRegistry meterRegistry;
+    private final ProcessedEventStore processedEventStore;
+    private final ApplicationEventRetryRouter retryRouter;
+    private final DeadLetterJdbcRepository deadLetterJdbcRepository;
+    private final KeyOrderedBatchProcessor applicationEventProcessor;
+    private final Counter duplicates;
+
+    public KafkaConsumerService(MeterRegistry meterRegistry,
+                                ProcessedEventStore processedEventStore,
+                                ApplicationEventRetryRouter retryRouter,
+                                DeadLetterJdbcRepository deadLetterJdbcRepository,
+                                @Value("${kafka.consumer.key-lanes:64}") int keyLanes) {
+        this.meterRegistry = meterRegistry;
+        this.processedEventStore = processedEventStore;
+        this.retryRouter = retryRouter;
+        this.deadLetterJdbcRepository = deadLetterJdbcRepository;
+        this.applicationEventProcessor = new KeyOrderedBatchProcessor(keyLanes);
+        this.duplicates = Counter.builder("kafka.listener.duplicates").tag("listener", "loan.applications").register(meterRegistry);
+    }
+
+    @PreDestroy
+    public void close() {
+        applicationEventProcessor.close();
+    }
+
+    /**
+     * Partitions may come from an instance that processed events this one has not seen yet, so
+     * their ids are picked up before the first poll rather than on the next scheduled sync.
+     */
+    @Override
+    public void onPartitionsAssigned(Map<TopicPartition, Long> assignments, ConsumerSeekCallback callback) {
+        try {
+            processedEventStore.catchUp(GROUP);
+        } catch (RuntimeException e) {
+            log.warn("Could not catch up on processed event ids: {}", e.getMessage());
+        }
+    }
+
+    @KafkaListener(topics = ApplicationEventRetryRouter.TOPIC, groupId = GROUP,
+            containerFactory = "applicationEventListenerContainerFactory",
+            concurrency = "${kafka.consumer.concurrency.loan-applications:3}")
+    public void consumeLoanApplicationEvents(List<ConsumerRecord<String, ApplicationEvent>> records, Acknowledgment acknowledgment) {
+        List<ApplicationEventRetryRouter.Failed> failed = new ArrayList<>();
+        List<ConsumerRecord<String, ApplicationEvent>> decoded = new ArrayList<>(records.size());
+        for (ConsumerRecord<String, ApplicationEvent> record : records) {
+            if (record.value() == null) {
+                // Could not be decoded, see ErrorHandlingDeserializer; retrying cannot help
+                log.warn("Dead-lettering undecodable record {}-{}@{}", record.topic(), record.partition(), record.offset());
+                failed.add(new ApplicationEventRetryRouter.Failed(record, null));
+            } else {
+                decoded.add(record);
+            }
+        }
+
+        List<UUID> eventIds = decoded.stream().map(KafkaConsumerService::eventId).filter(Objects::nonNull).toList();
+        Set<UUID> alreadyProcessed = eventIds.isEmpty() ? Set.of() : processedEventStore.findProcessed(GROUP, eventIds);
+        Set<UUID> processed = ConcurrentHashMap.newKeySet();
+
+        List<KeyOrderedBatchProcessor.Incomplete> incomplete = applicationEventProcessor.process(decoded, record -> {
+            UUID eventId = eventId(record);
+            if (eventId != null && (alreadyProcessed.contains(eventId) || processed.contains(eventId))) {
+                duplicates.increment();
+                return;
+            }
+            handleApplicationEvent(record);
+            if (eventId != null) {
+                processed.add(eventId);
+            }
+        });
+        for (KeyOrderedBatchProcessor.Incomplete item : incomplete) {
+            failed.add(new ApplicationEventRetryRouter.Failed(decoded.get(item.index()), item.error()));
+        }
+        // Throws if the retry topic does not take them; the batch is then redelivered, see KafkaConfig
+        retryRouter.routeAll(failed);
+        processedEventStore.markProcessed(GROUP, processed);
+        completed(ApplicationEventRetryRouter.TOPIC, records.size(), acknowledgment);
+    }
+
+    /**
+     * Retry tiers: each record waits until it is due, then is processed once more and on failure
+     * moved on to the next tier or the dead-letter topic. Every tier has its own container, so a
+     * record waiting out the 1m tier does not hold up the shorter ones.
+     */
+    @KafkaListener(topics = ApplicationEventRetryRouter.TOPIC + ".retry.1s", groupId = GROUP,
+            containerFactory = "applicationEventRetryListenerContainerFactory",
+            concurrency = "${kafka.consumer.concurrency.loan-applications-retry:3}")
+    @KafkaListener(topics = ApplicationEventRetryRouter.TOPIC + ".retry.10s", groupId = GROUP,
+            containerFactory = "applicationEventRetryListenerContainerFactory",
+            concurrency = "${kafka.consumer.concurrency.loan-applications-retry:3}")
+    @KafkaListener(topics = ApplicationEventRetryRouter.TOPIC + ".retry.1m", groupId = GROUP,
+            containerFactory = "applicationEventRetryListenerContainerFactory",
+            concurrency = "${kafka.consumer.concurrency.loan-applications-retry:3}")
+    public void consumeRetriedLoanApplicationEvent(ConsumerRecord<String, ApplicationEvent> record, Acknowledgment acknowledgment) {
+        Duration remaining = ApplicationEventRetryRouter.remainingDelay(record);
+        if (!remaining.isZero()) {
+            // Pauses this tier's consumer and redelivers the record once it is due
+            acknowledgment.nack(remaining);
+            return;
+        }
+        UUID eventId = eventId(record);
+        if (record.value() == null) {
+            retryRouter.routeAll(List.of(new ApplicationEventRetryRouter.Failed(record, null)));
+        } else if (eventId != null && !processedEventStore.findProcessed(GROUP, List.of(eventId)).isEmpty()) {
+            duplicates.increment();
+        } else {
+            try {
+                handleApplicationEvent(record);
+                if (eventId != null) {
+                    processedEventStore.markProcessed(GROUP, Set.of(eventId));
+                }
+            } catch (RuntimeException e) {
+                log.warn("Retry {} of {}-{}@{} failed: {}", ApplicationEventRetryRouter.attempts(record), record.topic(),
+                        record.partition(), record.offset(), e.getMessage());
+                retryRouter.routeAll(List.of(new ApplicationEventRetryRouter.Failed(record, e)));
+            }
+        }
+        completed("loan.applications.retry", 1, acknowledgment);
+    }
+
+    /**
+     * Stores dead letters so they can be inspected and replayed, see DeadLetterController.
+     */
+    @KafkaListener(topics = ApplicationEventRetryRouter.DEAD_LETTER_TOPIC, groupId = GROUP,
+            containerFactory = "deadLetterListenerContainerFactory",
+            concurrency = "${kafka.consumer.concurrency.loan-applications-dlt:1}")
+    public void consumeDeadLetters(List<ConsumerRecord<String, byte[]>> records, Acknowledgment acknowledgment) {
+        List<DeadLetterJdbcRepository.NewDeadLetter> deadLetters = new ArrayList<>(records.size());
+        for (ConsumerRecord<String, byte[]> record : records) {
+            Header originalPartition = record.headers().lastHeader(ApplicationEventRetryRouter.ORIGINAL_PARTITION_HEADER);
+            Header originalOffset = record.headers().lastHeader(ApplicationEventRetryRouter.ORIGINAL_OFFSET_HEADER);
+            String originalTopic = header(record, ApplicationEventRetryRouter.ORIGINAL_TOPIC_HEADER);
+            deadLetters.add(new DeadLetterJdbcRepository.NewDeadLetter(
+                    originalTopic == null ? record.topic() : originalTopic,
+                    originalPartition == null ? null : ByteBuffer.wrap(originalPartition.value()).getInt(),
+                    originalOffset == null ? null : ByteBuffer.wrap(originalOffset.value()).getLong(),
+                    record.partition(), record.offset(), record.key(),
+                    headerEventId(record), record.value(),
+                    header(record, ApplicationEventCodec.HEADER), ApplicationEventRetryRouter.attempts(record),
+                    header(record, ApplicationEventRetryRouter.ERROR_HEADER)));
+        }
+        deadLetterJdbcRepository.insertAll(deadLetters);
+        completed(ApplicationEventRetryRouter.DEAD_LETTER_TOPIC, records.size(), acknowledgment);
+    }
+
+    private void handleApplicationEvent(ConsumerRecord<String, ApplicationEvent> record) {
+        log.debug("Received {} for application {}", record.value().getClass().getSimpleName(), record.value().applicationId());
+    }
+
+    // Stable across redeliveries: assigned when the event was written to the outbox
+    private static UUID eventId(ConsumerRecord<String, ApplicationEvent> record) {
+        UUID eventId = headerEventId(record);
+        if (eventId != null) {
+            return eventId;
+        }
+        return record.value() == null ? null : record.value().eventId();
+    }
 
-    @KafkaListener(topics = "loan.applications", groupId = "application-group")
-    public void consumeLoanApplicationEvents(String message) {
-        System.out.println("\nReceived Event from loan.applications topic: \n" + message);
+    // A malformed header is ignored rather than thrown, which would redeliver the batch forever
+    private static UUID headerEventId(ConsumerRecord<?, ?> record) {
+        String header = header(record, ApplicationEventCodec.EVENT_ID_HEADER);
+        if (header == null) {
+            return null;
+        }
+        try {
+            return UUID.fromString(header);
+        } catch (IllegalArgumentException e) {
+            log.warn("Ignoring malformed {} header on {}-{}@{}", ApplicationEventCodec.EVENT_ID_HEADER,
+                    record.topic(), record.partition(), record.offset());
+            return null;
+        }
     }
 
-    @KafkaListener(topics = "application-created", groupId = "application-group")
-    public void consumeApplicationCreated(String message) {
-        System.out.println("\nReceived Application Created Event: " + message);
+    private static String header(ConsumerRecord<?, ?> record, String name) {
+        Header header = record.headers().lastHeader(name);
+        return header == null ? null : new String(header.value(), StandardCharsets.UTF_8);
     }
 
-    @KafkaListener(topics = "application-fetched", groupId = "application-group")
-    public void consumeApplicationFetched(String message) {
-        System.out.println("Received Application Fetched Event: " + message);
+    @KafkaListener(topics = "application-fetched", groupId = GROUP,
+            concurrency = "${kafka.consumer.concurrency.application-fetched:1}")
+    public void consumeApplicationFetched(List<ConsumerRecord<String, String>> records, Acknowledgment acknowledgment) {
+        records.forEach(record -> log.debug("Received Application Fetched Event: {}", record.value()));
+        completed("application-fetched", records.size(), acknowledgment);
     }
 
-    @KafkaListener(topics = "applications-fetched-with-filters", groupId = "application-group")
-    public void consumeApplicationsFetchedWithFilters(String message) {
-        System.out.println("Received Applications Fetched With Filters Event: " + message);
+    @KafkaListener(topics = {"application-created", "applications-fetched-with-filters", "all-applications-fetched", "decision-created"},
+            groupId = GROUP,
+            concurrency = "${kafka.consumer.concurrency.legacy:1}")
+    public void consumeLegacyTopics(List<ConsumerRecord<String, String>> records, Acknowledgment acknowledgment) {
+        records.forEach(record -> log.debug("Received event from {}: {}", record.topic(), record.value()));
+        completed("legacy", records.size(), acknowledgment);
     }
 
-    @KafkaListener(topics = "all-applications-fetched", groupId = "application-group")
-    public void consumeAllApplicationsFetched(String message) {
-        System.out.println("Received All Applications Fetched Event: " + message);
+    private void completed(String listener, int records, Acknowledgment acknowledgment) {
+        acknowledgment.acknowledge();
+        count(listener, records);
     }
 
-    @KafkaListener(topics = "decision-created", groupId = "application-group")
-    public void consumeDecisionCreated(String message) {
-        System.out.println("Received Decision Created Event: " + message);
+    private void count(String listener, int records) {
+        Counter.builder("kafka.listener.records").tag("listener", listener).register(meterRegistry).increment(records);
+        DistributionSummary.builder("kafka.listener.batch.size").tag("listener", listener).register(meterRegistry).record(records);
     }
-}
\ No newline at end of file
+}
@@ -1,30 +1,238 @@
 package com.hfgroup.mortgage.service;
 
+import com.fasterxml.jackson.core.JsonProcessingException;
 import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.SmartLifecycle;
 import org.springframework.kafka.core.KafkaTemplate;
 import org.springframework.stereotype.Service;
 
-import java.time.LocalDateTime;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
 import java.util.UUID;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.TimeUnit;
 
+/**
+ * Fire-and-forget publishing for callers that must not wait on the broker. Messages are
+ * serialized on the caller's thread, put on a bounded queue and sent by a single publisher thread
+ * in batches, so the producer can fill its own batches. When the queue is full the configured
+ * {@link OverflowPolicy} applies. Delivery results feed the kafka.publisher.* metrics, and on
+ * shutdown the queue is drained before the producer is closed.
+ * Events that must not be lost go through the outbox instead, see {@link OutboxService}.
+ */
 @Service
-public class KafkaProducerService {
+@Slf4j
+public class KafkaProducerService implements SmartLifecycle {
+
+    public enum OverflowPolicy {
+        /** Wait up to the block timeout for space, then drop the message. */
+        BLOCK,
+        /** Drop the new message straight away. */
+        DROP_NEWEST,
+        /** Throw {@link PublishRejectedException} back to the caller. */
+        REJECT
+    }
+
+    public static class PublishRejectedException extends RuntimeException {
+        public PublishRejectedException(String message) {
+            super(message);
+        }
+    }
+
+    private record Message(String topic, String key, String value, long enqueuedNanos) {
+    }
 
     private final KafkaTemplate<String, String> kafkaTemplate;
     private final ObjectMapper objectMapper;
+    private final BlockingQueue<Message> queue;
+    private final OverflowPolicy overflowPolicy;
+    private final Duration blockTimeout;
+    private final Duration drainTimeout;
+    private final int maxBatch;
+
+    private final Counter succeeded;
+    private final Counter failed;
+    private final Counter dropped;
+    private final Timer latency;
 
-    public KafkaProducerService(KafkaTemplate<String, String> kafkaTemplate, ObjectMapper objectMapper) {
+    private volatile boolean accepting = true;
+    private volatile boolean running;
+    private Thread publisher;
+
+    public KafkaProducerService(KafkaTemplate<String, String> kafkaTemplate, ObjectMapper objectMapper, MeterRegistry meterRegistry,
+                                @Value("${kafka.publisher.queue-capacity:10000}") int queueCapacity,
+                                @Value("${kafka.publisher.overflow-policy:BLOCK}") OverflowPolicy overflowPolicy,
+                                @Value("${kafka.publisher.block-timeout:PT0.1S}") Duration blockTimeout,
+                                @Value("${kafka.publisher.drain-timeout:PT10S}") Duration drainTimeout,
+                                @Value("${kafka.publisher.max-batch:500}") int maxBatch) {
         this.kafkaTemplate = kafkaTemplate;
         this.objectMapper = objectMapper;
+        this.queue = new ArrayBlockingQueue<>(queueCapacity);
+        this.overflowPolicy = overflowPolicy;
+        this.blockTimeout = blockTimeout;
+        this.drainTimeout = drainTimeout;
+        this.maxBatch = maxBatch;
+        this.succeeded = Counter.builder("kafka.publisher.sent").tag("result", "success").register(meterRegistry);
+        this.failed = Counter.builder("kafka.publisher.sent").tag("result", "failure").register(meterRegistry);
+        this.dropped = Counter.builder("kafka.publisher.sent").tag("result", "dropped").register(meterRegistry);
+        this.latency = Timer.builder("kafka.publisher.latency")
+                .description("Time from enqueue to broker acknowledgement")
+                .register(meterRegistry);
+        Gauge.builder("kafka.publisher.queue.size", queue, BlockingQueue::size).register(meterRegistry);
     }
 
+    /**
+     * Method to queue a message for publishing.
+     * @param topic The topic to publish to.
+     * @param key The record key, decides the partition.
+     * @param payload Serialized to JSON before it is queued.
+     * @throws PublishRejectedException if the queue is full and the policy is REJECT.
+     */
     public void publishMessage(String topic, UUID key, Object payload) {
+        enqueue(topic, key.toString(), payload);
+    }
+
+    /**
+     * Method to queue a message without a key; the producer spreads such records over partitions.
+     */
+    public void publishMessage(String topic, Object payload) {
+        enqueue(topic, null, payload);
+    }
+
+    private void enqueue(String topic, String key, Object payload) {
+        String value;
         try {
-            String message = objectMapper.writeValueAsString(payload);
-            kafkaTemplate.send(topic, key.toString(), message);
-        } catch (Exception e) {
-            System.err.println("Error publishing message to Kafka: " + e.getMessage());
+            value = objectMapper.writeValueAsString(payload);
+        } catch (JsonProcessingException e) {
+            failed.increment();
+            log.error("Could not serialize message for {}: {}", topic, e.getMessage());
+            return;
+        }
+        Message message = new Message(topic, key, value, System.nanoTime());
+
+        if (!accepting) {
+            // Late messages, e.g. a final flush during shutdown, go straight to the producer
+            send(message);
+            return;
         }
+        if (queue.offer(message)) {
+            return;
+        }
+        switch (overflowPolicy) {
+            case BLOCK -> {
+                try {
+                    if (queue.offer(message, blockTimeout.toNanos(), TimeUnit.NANOSECONDS)) {
+                        return;
+                    }
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+                drop(message);
+            }
+            case DROP_NEWEST -> drop(message);
+            case REJECT -> {
+                dropped.increment();
+                throw new PublishRejectedException("Publish queue is full, message for " + topic + " rejected");
+            }
+        }
+    }
+
+    private void drop(Message message) {
+        dropped.increment();
+        log.warn("Publish queue is full, dropped message for {}", message.topic());
+    }
+
+    private void publishLoop() {
+        List<Message> batch = new ArrayList<>(maxBatch);
+        while (running || !queue.isEmpty()) {
+            try {
+                Message first = queue.poll(100, TimeUnit.MILLISECONDS);
+                if (first == null) {
+                    continue;
+                }
+                batch.add(first);
+                queue.drainTo(batch, maxBatch - 1);
+                batch.forEach(this::send);
+            } catch (InterruptedException e) {
+                // Interrupted after the drain timeout, whatever is left is counted by stop()
+                return;
+            } catch (RuntimeException e) {
+                log.error("Unexpected error in Kafka publisher", e);
+            } finally {
+                batch.clear();
+            }
+        }
+    }
+
+    private void send(Message message) {
+        try {
+            kafkaTemplate.send(message.topic(), message.key(), message.value()).whenComplete((result, error) -> {
+                latency.record(System.nanoTime() - message.enqueuedNanos(), TimeUnit.NANOSECONDS);
+                if (error == null) {
+                    succeeded.increment();
+                } else {
+                    failed.increment();
+                    log.warn("Could not publish message to {}: {}", message.topic(), error.getMessage());
+                }
+            });
+        } catch (RuntimeException e) {
+            // send() throws directly for e.g. a closed producer or an oversized record
+            failed.increment();
+            log.warn("Could not publish message to {}: {}", message.topic(), e.getMessage());
+        }
+    }
+
+    @Override
+    public synchronized void start() {
+        if (running) {
+            return;
+        }
+        accepting = true;
+        running = true;
+        publisher = new Thread(this::publishLoop, "kafka-publisher");
+        publisher.setDaemon(true);
+        publisher.start();
+    }
+
+    /**
+     * Stops taking new messages onto the queue, waits up to the drain timeout for the publisher to
+     * send what is queued, and flushes the producer so the sends complete before it is closed.
+     */
+    @Override
+    public synchronized void stop() {
+        if (!running) {
+            return;
+        }
+        accepting = false;
+        running = false;
+        try {
+            publisher.join(drainTimeout.toMillis());
+            if (publisher.isAlive()) {
+                publisher.interrupt();
+                publisher.join(1000);
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        int abandoned = queue.size();
+        if (abandoned > 0) {
+            dropped.increment(abandoned);
+            queue.clear();
+            log.warn("Dropped {} queued messages that could not be published within {}", abandoned, drainTimeout);
+        }
+        kafkaTemplate.flush();
+    }
+
+    @Override
+    public boolean isRunning() {
+        return running;
     }
-    public void publishMessage(String topic, Object payload) {}
-}
\ No newline at end of file
+}
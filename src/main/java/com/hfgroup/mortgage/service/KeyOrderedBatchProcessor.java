@@ -0,0 +1,109 @@
+package com.hfgroup.mortgage.service;
+
+import lombok.extern.slf4j.Slf4j;
+import org.apache.kafka.clients.consumer.ConsumerRecord;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.function.Consumer;
+
+/**
+ * Processes a polled batch with more parallelism than the partition count while keeping the
+ * order of records with the same key. Records are spread over a fixed number of lanes by key
+ * hash; each lane runs on its own virtual thread and handles its records in batch order, so two
+ * records of one key never run concurrently or out of order.
+ *
+ * When a record fails, later records with the same key are not processed either. Both are
+ * returned as incomplete, in batch order, so the caller can hand them on together and keep the
+ * key's order.
+ */
+@Slf4j
+public class KeyOrderedBatchProcessor implements AutoCloseable {
+
+    private final int laneCount;
+    private final ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor();
+
+    public KeyOrderedBatchProcessor(int laneCount) {
+        this.laneCount = laneCount;
+    }
+
+    /**
+     * A record that was not processed.
+     * @param index Position in the batch.
+     * @param error Why it failed, or null if it was skipped after an earlier record of its key failed.
+     */
+    public record Incomplete(int index, RuntimeException error) {
+    }
+
+    /**
+     * Method to process a batch and wait for it to finish.
+     * @param records The batch, in the order the consumer returned it.
+     * @param handler Called once per record; an exception marks the record as failed.
+     * @return The records that failed or were skipped, by index; empty if all were processed.
+     */
+    public <K, V> List<Incomplete> process(List<ConsumerRecord<K, V>> records, Consumer<ConsumerRecord<K, V>> handler) {
+        List<List<Integer>> lanes = new ArrayList<>(laneCount);
+        for (int i = 0; i < laneCount; i++) {
+            lanes.add(new ArrayList<>());
+        }
+        for (int i = 0; i < records.size(); i++) {
+            int hash = Objects.hashCode(records.get(i).key());
+            lanes.get(Math.floorMod(hash ^ (hash >>> 16), laneCount)).add(i);
+        }
+
+        List<Future<List<Incomplete>>> running = new ArrayList<>();
+        for (List<Integer> lane : lanes) {
+            if (!lane.isEmpty()) {
+                running.add(executor.submit(() -> runLane(records, lane, handler)));
+            }
+        }
+
+        List<Incomplete> incomplete = new ArrayList<>();
+        for (Future<List<Incomplete>> lane : running) {
+            try {
+                incomplete.addAll(lane.get());
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new IllegalStateException("Interrupted while processing a batch", e);
+            } catch (ExecutionException e) {
+                // runLane catches handler failures, so this is a bug in the lane itself
+                throw new IllegalStateException(e.getCause());
+            }
+        }
+        incomplete.sort(Comparator.comparingInt(Incomplete::index));
+        return incomplete;
+    }
+
+    private <K, V> List<Incomplete> runLane(List<ConsumerRecord<K, V>> records, List<Integer> lane, Consumer<ConsumerRecord<K, V>> handler) {
+        List<Incomplete> incomplete = new ArrayList<>();
+        Set<K> failedKeys = new HashSet<>();
+        for (int index : lane) {
+            ConsumerRecord<K, V> record = records.get(index);
+            if (failedKeys.contains(record.key())) {
+                incomplete.add(new Incomplete(index, null));
+                continue;
+            }
+            try {
+                handler.accept(record);
+            } catch (RuntimeException e) {
+                log.warn("Processing {}-{}@{} failed: {}", record.topic(), record.partition(), record.offset(), e.getMessage());
+                failedKeys.add(record.key());
+                incomplete.add(new Incomplete(index, e));
+            }
+        }
+        return incomplete;
+    }
+
+    @Override
+    public void close() {
+        executor.close();
+    }
+}
@@ -0,0 +1,75 @@
+package com.hfgroup.mortgage.service;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.function.Supplier;
+
+/**
+ * Runs a read-modify-write in its own transaction and, when another writer got there first,
+ * re-runs it from a fresh read. Only for writes that are safe to re-apply on the newer state;
+ * callers holding a client-supplied version must not retry but report the conflict instead.
+ */
+@Component
+@Slf4j
+public class OptimisticRetryTemplate {
+
+    private final TransactionTemplate transactionTemplate;
+    private final int maxAttempts;
+    private final long backoffMillis;
+
+    public OptimisticRetryTemplate(PlatformTransactionManager transactionManager,
+                                   @Value("${applications.optimistic-retry.max-attempts:3}") int maxAttempts,
+                                   @Value("${applications.optimistic-retry.backoff:PT0.02S}") Duration backoff) {
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.maxAttempts = Math.max(1, maxAttempts);
+        this.backoffMillis = backoff.toMillis();
+    }
+
+    /**
+     * Method to run the work in a transaction, retrying on optimistic locking failures.
+     * @param work The read-modify-write; it is called again from scratch on each attempt.
+     * @return The result of the first attempt that commits.
+     * @throws OptimisticLockingFailureException if every attempt conflicted.
+     */
+    public <T> T execute(Supplier<T> work) {
+        for (int attempt = 1; ; attempt++) {
+            try {
+                return transactionTemplate.execute(status -> work.get());
+            } catch (OptimisticLockingFailureException e) {
+                if (attempt >= maxAttempts) {
+                    throw e;
+                }
+                log.debug("Optimistic locking conflict, retrying (attempt {} of {})", attempt + 1, maxAttempts);
+                backoff(attempt);
+            }
+        }
+    }
+
+    /**
+     * Method to run the work in a transaction once, without retrying.
+     */
+    public <T> T executeOnce(Supplier<T> work) {
+        return transactionTemplate.execute(status -> work.get());
+    }
+
+    // Jittered so writers that collided once do not collide again in lockstep
+    private void backoff(int attempt) {
+        long delay = backoffMillis * attempt;
+        if (delay <= 0) {
+            return;
+        }
+        try {
+            Thread.sleep(ThreadLocalRandom.current().nextLong(delay / 2, delay + 1));
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while retrying", e);
+        }
+    }
+}
@@ -0,0 +1,154 @@
+package com.hfgroup.mortgage.service;
+
+import com.hfgroup.mortgage.Repository.OutboxJdbcRepository;
+import com.hfgroup.mortgage.event.ApplicationEventCodec;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.apache.kafka.clients.producer.ProducerRecord;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.kafka.core.KafkaTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+/**
+ * Drains outbox_events to Kafka. Each round claims the oldest unpublished rows, sends them all
+ * without waiting in between, then marks the longest prefix that was acknowledged as published.
+ * Whatever follows the first failure is sent again next round, so delivery is at least once and
+ * per-key order is kept. A row that fails outbox.relay.max-attempts times is given up on and
+ * counted in outbox.relay.given-up; later rows with its key are held back until it is resolved.
+ * An advisory lock keeps a single relay active across instances.
+ */
+@Component
+@Slf4j
+public class OutboxRelay {
+
+    private static final long RELAY_LOCK_KEY = 0x6f7574626f78L; // "outbox"
+
+    private final OutboxJdbcRepository outboxJdbcRepository;
+    private final KafkaTemplate<String, byte[]> kafkaTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final int batchSize;
+    private final int maxBatchesPerRun;
+    private final int maxAttempts;
+    private final Duration sendTimeout;
+    private final Duration retention;
+    private final Counter published;
+    private final Counter failed;
+    private final Counter givenUp;
+
+    public OutboxRelay(OutboxJdbcRepository outboxJdbcRepository,
+                       KafkaTemplate<String, byte[]> kafkaTemplate,
+                       PlatformTransactionManager transactionManager,
+                       MeterRegistry meterRegistry,
+                       @Value("${outbox.relay.batch-size:500}") int batchSize,
+                       @Value("${outbox.relay.max-batches-per-run:20}") int maxBatchesPerRun,
+                       @Value("${outbox.relay.max-attempts:10}") int maxAttempts,
+                       @Value("${outbox.relay.send-timeout:PT10S}") Duration sendTimeout,
+                       @Value("${outbox.retention:P7D}") Duration retention) {
+        this.outboxJdbcRepository = outboxJdbcRepository;
+        this.kafkaTemplate = kafkaTemplate;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.batchSize = batchSize;
+        this.maxBatchesPerRun = maxBatchesPerRun;
+        this.maxAttempts = maxAttempts;
+        this.sendTimeout = sendTimeout;
+        this.retention = retention;
+        this.published = Counter.builder("outbox.relay.published").register(meterRegistry);
+        this.failed = Counter.builder("outbox.relay.failed").register(meterRegistry);
+        this.givenUp = Counter.builder("outbox.relay.given-up").register(meterRegistry);
+    }
+
+    @Scheduled(fixedDelayString = "${outbox.relay.interval:PT0.5S}")
+    public void relay() {
+        // Keep going while batches come back full, up to a bound so other scheduled work gets a turn
+        for (int batch = 0; batch < maxBatchesPerRun; batch++) {
+            Integer claimed = transactionTemplate.execute(status -> relayBatch());
+            if (claimed == null || claimed < batchSize) {
+                return;
+            }
+        }
+    }
+
+    private int relayBatch() {
+        if (!outboxJdbcRepository.tryRelayLock(RELAY_LOCK_KEY)) {
+            return 0;
+        }
+        List<OutboxJdbcRepository.PendingEvent> events = outboxJdbcRepository.lockPending(batchSize, maxAttempts);
+        if (events.isEmpty()) {
+            return 0;
+        }
+
+        List<CompletableFuture<?>> sends = new ArrayList<>(events.size());
+        for (OutboxJdbcRepository.PendingEvent event : events) {
+            ProducerRecord<String, byte[]> record = new ProducerRecord<>(event.topic(), event.key(), event.payload());
+            record.headers().add(ApplicationEventCodec.HEADER, event.contentType().getBytes(StandardCharsets.UTF_8));
+            if (event.eventId() != null) {
+                record.headers().add(ApplicationEventCodec.EVENT_ID_HEADER, event.eventId().toString().getBytes(StandardCharsets.UTF_8));
+            }
+            sends.add(kafkaTemplate.send(record));
+        }
+        kafkaTemplate.flush();
+
+        List<Long> acknowledged = new ArrayList<>(events.size());
+        long deadline = System.nanoTime() + sendTimeout.toNanos();
+        for (int i = 0; i < events.size(); i++) {
+            OutboxJdbcRepository.PendingEvent event = events.get(i);
+            try {
+                sends.get(i).get(Math.max(0, deadline - System.nanoTime()), TimeUnit.NANOSECONDS);
+                acknowledged.add(event.id());
+            } catch (ExecutionException | TimeoutException e) {
+                String error = e instanceof ExecutionException ? String.valueOf(e.getCause()) : "Timed out after " + sendTimeout;
+                outboxJdbcRepository.markFailed(event.id(), error);
+                failed.increment();
+                if (event.attempts() + 1 >= maxAttempts) {
+                    givenUp.increment();
+                    log.error("Giving up on outbox event {} after {} attempts, holding back later events for key {}: {}",
+                            event.id(), maxAttempts, event.key(), error);
+                } else {
+                    log.warn("Could not publish outbox event {}, will retry: {}", event.id(), error);
+                }
+                break;
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                break;
+            }
+        }
+
+        if (!acknowledged.isEmpty()) {
+            outboxJdbcRepository.markPublished(acknowledged);
+            published.increment(acknowledged.size());
+        }
+        // Report a short batch after a failure so the run stops and backs off until the next tick
+        return acknowledged.size() == events.size() ? events.size() : 0;
+    }
+
+    /**
+     * Deletes published events once they are older than the retention period, in small chunks.
+     */
+    @Scheduled(fixedDelayString = "${outbox.purge-interval:PT1H}")
+    public void purge() {
+        LocalDateTime cutoff = LocalDateTime.now().minus(retention);
+        int deleted;
+        int total = 0;
+        do {
+            deleted = outboxJdbcRepository.deletePublishedBefore(cutoff, 10_000);
+            total += deleted;
+        } while (deleted > 0);
+        if (total > 0) {
+            log.info("Purged {} published outbox events", total);
+        }
+    }
+}
@@ -0,0 +1,56 @@
+package com.hfgroup.mortgage.service;
+
+import com.hfgroup.mortgage.Repository.OutboxJdbcRepository;
+import com.hfgroup.mortgage.event.ApplicationEvent;
+import com.hfgroup.mortgage.event.ApplicationEventCodec;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Records events in outbox_events as part of the caller's transaction, so an event exists if and
+ * only if the change it describes was committed. {@link OutboxRelay} delivers them to Kafka.
+ * Events are encoded up front with the configured {@link ApplicationEventCodec} and keyed by
+ * application id, so all events of one application land on one partition in order.
+ */
+@Service
+public class OutboxService {
+
+    private final OutboxJdbcRepository outboxJdbcRepository;
+    private final ApplicationEventCodec eventCodec;
+
+    public OutboxService(OutboxJdbcRepository outboxJdbcRepository, ApplicationEventCodec eventCodec) {
+        this.outboxJdbcRepository = outboxJdbcRepository;
+        this.eventCodec = eventCodec;
+    }
+
+    /**
+     * Method to record one event in the current transaction.
+     */
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void enqueue(String topic, ApplicationEvent event) {
+        enqueueAll(topic, List.of(event));
+    }
+
+    /**
+     * Method to record a group of events in the current transaction with one batched insert.
+     * @param topic The topic the events are relayed to.
+     * @param events The events, relayed in list order.
+     */
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void enqueueAll(String topic, List<? extends ApplicationEvent> events) {
+        if (events.isEmpty()) {
+            return;
+        }
+        String contentType = eventCodec.contentType();
+        List<OutboxJdbcRepository.NewEvent> rows = new ArrayList<>(events.size());
+        for (ApplicationEvent event : events) {
+            rows.add(new OutboxJdbcRepository.NewEvent(topic, event.applicationId().toString(), event.eventId(),
+                    eventCodec.encode(event), contentType));
+        }
+        outboxJdbcRepository.insertAll(rows);
+    }
+}
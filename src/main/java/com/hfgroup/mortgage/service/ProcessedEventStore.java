@@ -0,0 +1,232 @@
+package com.hfgroup.mortgage.service;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.hfgroup.mortgage.Repository.ProcessedEventJdbcRepository;
+import com.hfgroup.mortgage.security.UuidBloomFilter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Remembers which events a consumer group has processed, for the de-duplication window. Processed
+ * ids are written to processed_events. Recent ones are also held in a bounded Caffeine cache, so a
+ * redelivery is recognised with one hash lookup. New ids, the common case, are answered by a Bloom
+ * filter of every stored id for the group, loaded on first use and rebuilt by purge(); only ids
+ * the filter might contain are looked up in the table, with one query per batch. Ids stored by
+ * other instances reach the filter on the next sync(), or at once when partitions are assigned to
+ * this one, see {@link #catchUp(String)}; until then a redelivery they already processed is not
+ * recognised here.
+ */
+@Component
+@Slf4j
+public class ProcessedEventStore {
+
+    private static final double FALSE_POSITIVE_RATE = 0.01;
+
+    private final ProcessedEventJdbcRepository processedEventJdbcRepository;
+    private final Cache<UUID, Boolean> recent;
+    private final Duration retention;
+    private final int minimumCapacity;
+    private final ConcurrentHashMap<String, GroupFilter> filters = new ConcurrentHashMap<>();
+
+    public ProcessedEventStore(ProcessedEventJdbcRepository processedEventJdbcRepository,
+                               MeterRegistry meterRegistry,
+                               @Value("${events.dedup.maximum-size:1000000}") long maximumSize,
+                               @Value("${events.dedup.retention:P1D}") Duration retention) {
+        this.processedEventJdbcRepository = processedEventJdbcRepository;
+        this.retention = retention;
+        this.minimumCapacity = (int) Math.min(maximumSize, Integer.MAX_VALUE / 2);
+        this.recent = Caffeine.newBuilder()
+                .maximumSize(maximumSize)
+                .expireAfterWrite(retention)
+                .recordStats()
+                .build();
+        CaffeineCacheMetrics.monitor(meterRegistry, recent, "processed-events");
+    }
+
+    /**
+     * Method to find which of a batch of events were already processed.
+     * @param consumerGroup The group the check is for. The Caffeine cache is not split by group,
+     *                      so each group needs its own store if one instance consumes for several.
+     * @param eventIds Ids of the polled records.
+     * @return The ids that were processed before.
+     */
+    public Set<UUID> findProcessed(String consumerGroup, Collection<UUID> eventIds) {
+        Set<UUID> processed = new HashSet<>();
+        List<UUID> unknown = new ArrayList<>();
+        GroupFilter filter = filter(consumerGroup);
+        for (UUID eventId : eventIds) {
+            if (recent.getIfPresent(eventId) != null) {
+                processed.add(eventId);
+            } else if (filter.mightContain(eventId)) {
+                unknown.add(eventId);
+            }
+        }
+        if (!unknown.isEmpty()) {
+            Set<UUID> stored = processedEventJdbcRepository.findProcessed(consumerGroup, unknown);
+            stored.forEach(eventId -> recent.put(eventId, Boolean.TRUE));
+            processed.addAll(stored);
+        }
+        return processed;
+    }
+
+    /**
+     * Method to record events as processed, in memory and in processed_events.
+     */
+    public void markProcessed(String consumerGroup, Collection<UUID> eventIds) {
+        if (eventIds.isEmpty()) {
+            return;
+        }
+        processedEventJdbcRepository.insertAll(consumerGroup, eventIds);
+        GroupFilter filter = filter(consumerGroup);
+        eventIds.forEach(eventId -> {
+            filter.put(eventId);
+            recent.put(eventId, Boolean.TRUE);
+        });
+        if (filter.isFull()) {
+            // Rare: capacity doubles on each rebuild
+            filter.rebuild();
+        }
+    }
+
+    /**
+     * Picks up ids stored by other instances since the last sync.
+     */
+    @Scheduled(fixedDelayString = "${events.dedup.sync-interval:PT30S}")
+    public void sync() {
+        filters.values().forEach(GroupFilter::sync);
+    }
+
+    /**
+     * Method to pick up ids stored by other instances straight away, e.g. when this instance is
+     * assigned partitions that another one was consuming.
+     */
+    public void catchUp(String consumerGroup) {
+        filter(consumerGroup).sync();
+    }
+
+    /**
+     * Deletes stored ids once they are older than the window, in small chunks, then rebuilds the
+     * Bloom filters from what is left so their false-positive rate does not creep up.
+     */
+    @Scheduled(fixedDelayString = "${events.dedup.purge-interval:PT1H}")
+    public void purge() {
+        LocalDateTime cutoff = LocalDateTime.now().minus(retention);
+        int deleted;
+        int total = 0;
+        do {
+            deleted = processedEventJdbcRepository.deleteProcessedBefore(cutoff, 10_000);
+            total += deleted;
+        } while (deleted > 0);
+        if (total > 0) {
+            log.info("Purged {} processed event ids", total);
+        }
+        filters.values().forEach(GroupFilter::rebuild);
+    }
+
+    private GroupFilter filter(String consumerGroup) {
+        return filters.computeIfAbsent(consumerGroup, group -> {
+            GroupFilter filter = new GroupFilter(group);
+            filter.rebuild();
+            return filter;
+        });
+    }
+
+    /**
+     * The Bloom filter of one group's stored ids. While a rebuild loads the table, ids put from
+     * elsewhere go into both filters, so none is lost when the new one is swapped in.
+     */
+    private final class GroupFilter {
+
+        private final String consumerGroup;
+        private final AtomicInteger size = new AtomicInteger();
+        private volatile UuidBloomFilter bloomFilter = UuidBloomFilter.create(1, FALSE_POSITIVE_RATE);
+        private volatile int capacity;
+        private UuidBloomFilter loading;
+        private LocalDateTime lastSync;
+
+        private GroupFilter(String consumerGroup) {
+            this.consumerGroup = consumerGroup;
+        }
+
+        boolean mightContain(UUID eventId) {
+            return bloomFilter.mightContain(eventId);
+        }
+
+        boolean isFull() {
+            return size.get() > capacity;
+        }
+
+        synchronized void put(UUID eventId) {
+            // Counts roughly distinct ids; sync() hands back ones already put
+            if (!bloomFilter.mightContain(eventId)) {
+                size.incrementAndGet();
+            }
+            bloomFilter.put(eventId);
+            if (loading != null) {
+                loading.put(eventId);
+            }
+        }
+
+        void sync() {
+            LocalDateTime since;
+            LocalDateTime now = LocalDateTime.now();
+            synchronized (this) {
+                since = lastSync;
+                lastSync = now;
+            }
+            // Overlap slightly so rows committed just before the previous sync are not missed
+            processedEventJdbcRepository.findProcessedSince(consumerGroup, since.minusSeconds(5)).forEach(this::put);
+        }
+
+        // Not synchronized while the table is read, so consumers are not held up by it
+        void rebuild() {
+            UuidBloomFilter rebuilt;
+            AtomicInteger loaded = new AtomicInteger();
+            LocalDateTime started = LocalDateTime.now();
+            synchronized (this) {
+                if (loading != null) {
+                    return;
+                }
+                capacity = Math.max(minimumCapacity, size.get() * 2);
+                rebuilt = UuidBloomFilter.create(capacity, FALSE_POSITIVE_RATE);
+                loading = rebuilt;
+            }
+            try {
+                processedEventJdbcRepository.forEachProcessed(consumerGroup, eventId -> {
+                    rebuilt.put(eventId);
+                    loaded.incrementAndGet();
+                });
+            } catch (RuntimeException e) {
+                synchronized (this) {
+                    loading = null;
+                }
+                throw e;
+            }
+            synchronized (this) {
+                loading = null;
+                bloomFilter = rebuilt;
+                size.set(loaded.get());
+                if (lastSync == null || lastSync.isAfter(started)) {
+                    lastSync = started;
+                }
+            }
+            log.debug("Loaded {} processed event ids for {}", loaded.get(), consumerGroup);
+        }
+    }
+}
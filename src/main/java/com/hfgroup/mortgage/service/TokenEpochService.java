@@ -0,0 +1,75 @@
+package com.hfgroup.mortgage.service;
+
+import com.hfgroup.mortgage.Repository.UserRepository;
+import com.hfgroup.mortgage.exception.UserNotFoundException;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.Duration;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Tracks each user's token epoch. A token is only accepted while the epoch it was issued under
+ * is still the user's current one, so bumping the epoch revokes every token issued before it.
+ * Epochs are kept in memory and re-read from the database after a short refresh interval so that
+ * changes made on other instances are picked up without a query per request.
+ */
+@Service
+public class TokenEpochService {
+
+    private final UserRepository userRepository;
+    private final long refreshIntervalNanos;
+    private final ConcurrentHashMap<UUID, CachedEpoch> epochs = new ConcurrentHashMap<>();
+
+    public TokenEpochService(UserRepository userRepository,
+                             @Value("${jwt.claims-only.epoch-refresh-interval:PT30S}") Duration refreshInterval) {
+        this.userRepository = userRepository;
+        this.refreshIntervalNanos = refreshInterval.toNanos();
+    }
+
+    /**
+     * Method to check whether a token epoch is still current for a user.
+     * @param userId The user ID carried by the token.
+     * @param tokenEpoch The epoch carried by the token.
+     * @return true if the token has not been revoked by an epoch bump.
+     */
+    public boolean isCurrent(UUID userId, int tokenEpoch) {
+        long now = System.nanoTime();
+        CachedEpoch cached = epochs.get(userId);
+        if (cached == null || now - cached.loadedAt() > refreshIntervalNanos) {
+            Integer epoch = userRepository.findTokenEpochById(userId).orElse(null);
+            if (epoch == null) {
+                epochs.remove(userId);
+                return false;
+            }
+            cached = new CachedEpoch(epoch, now);
+            epochs.put(userId, cached);
+        }
+        return cached.epoch() == tokenEpoch;
+    }
+
+    /**
+     * Method to revoke every token issued to a user so far.
+     * @param userId The user ID.
+     */
+    @Transactional
+    public void revokeTokens(UUID userId) {
+        if (userRepository.incrementTokenEpoch(userId) == 0) {
+            throw new UserNotFoundException("User not found with id: " + userId);
+        }
+        // Drop the cached epoch once the bump is visible, otherwise a concurrent read could re-cache the old one
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                epochs.remove(userId);
+            }
+        });
+    }
+
+    private record CachedEpoch(int epoch, long loadedAt) {
+    }
+}
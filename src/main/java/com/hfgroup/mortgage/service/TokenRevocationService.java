@@ -0,0 +1,128 @@
+package com.hfgroup.mortgage.service;
+
+import com.hfgroup.mortgage.Repository.RevokedTokenRepository;
+import com.hfgroup.mortgage.model.RevokedToken;
+import com.hfgroup.mortgage.security.UuidBloomFilter;
+import jakarta.annotation.PostConstruct;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Keeps the set of individually revoked tokens (by jti) in memory so the per-request check never
+ * touches the database. A Bloom filter answers the common "not revoked" case; possible hits are
+ * confirmed against the exact set. Revocations are persisted to revoked_tokens, reloaded at startup,
+ * picked up from other instances periodically, and compacted away once the token has expired.
+ */
+@Service
+@Slf4j
+public class TokenRevocationService {
+
+    private static final double FALSE_POSITIVE_RATE = 0.01;
+
+    private final RevokedTokenRepository revokedTokenRepository;
+    private final int minimumCapacity;
+
+    private final ConcurrentHashMap<UUID, Instant> revoked = new ConcurrentHashMap<>();
+    private volatile UuidBloomFilter bloomFilter;
+    private volatile int bloomCapacity;
+    private volatile LocalDateTime lastSync;
+
+    public TokenRevocationService(RevokedTokenRepository revokedTokenRepository,
+                                  @Value("${jwt.revocation.minimum-capacity:10000}") int minimumCapacity) {
+        this.revokedTokenRepository = revokedTokenRepository;
+        this.minimumCapacity = minimumCapacity;
+        this.bloomFilter = UuidBloomFilter.create(minimumCapacity, FALSE_POSITIVE_RATE);
+        this.bloomCapacity = minimumCapacity;
+    }
+
+    @PostConstruct
+    public void load() {
+        LocalDateTime now = LocalDateTime.now();
+        revokedTokenRepository.findByExpiresAtAfter(now).forEach(this::remember);
+        lastSync = now;
+        compact();
+        log.info("Loaded {} revoked tokens", revoked.size());
+    }
+
+    /**
+     * Method to check whether a token has been revoked.
+     * @param tokenId The jti claim, may be null for tokens issued before it existed.
+     * @return true if the token was revoked and has not yet expired.
+     */
+    public boolean isRevoked(UUID tokenId) {
+        if (tokenId == null || !bloomFilter.mightContain(tokenId)) {
+            return false;
+        }
+        return revoked.containsKey(tokenId);
+    }
+
+    /**
+     * Method to revoke a single token until it expires.
+     * @param tokenId The jti claim of the token.
+     * @param expiresAt The token expiry; the revocation is dropped after this instant.
+     */
+    public void revoke(UUID tokenId, Instant expiresAt) {
+        revokedTokenRepository.save(RevokedToken.builder()
+                .jti(tokenId)
+                .expiresAt(LocalDateTime.ofInstant(expiresAt, ZoneId.systemDefault()))
+                .build());
+        remember(tokenId, expiresAt);
+    }
+
+    /**
+     * Picks up tokens revoked on other instances since the last sync.
+     */
+    @Scheduled(fixedDelayString = "${jwt.revocation.sync-interval:PT30S}")
+    public void sync() {
+        LocalDateTime since = lastSync;
+        LocalDateTime now = LocalDateTime.now();
+        // Overlap slightly so rows committed just before the previous sync are not missed
+        List<RevokedToken> recent = revokedTokenRepository.findByRevokedAtAfterAndExpiresAtAfter(since.minusSeconds(5), now);
+        recent.forEach(this::remember);
+        lastSync = now;
+    }
+
+    /**
+     * Drops expired revocations from memory and the database, and rebuilds the Bloom filter to fit
+     * what is left so its false-positive rate does not creep up as tokens accumulate.
+     */
+    @Scheduled(fixedDelayString = "${jwt.revocation.compact-interval:PT10M}")
+    public void compact() {
+        Instant now = Instant.now();
+        // Outside the monitor: revoke() and sync() should not wait on the delete
+        revokedTokenRepository.deleteExpired(LocalDateTime.ofInstant(now, ZoneId.systemDefault()));
+        rebuildFilter(now);
+    }
+
+    private synchronized void rebuildFilter(Instant now) {
+        revoked.values().removeIf(expiresAt -> expiresAt.isBefore(now));
+        int capacity = Math.max(minimumCapacity, revoked.size() * 2);
+        UuidBloomFilter rebuilt = UuidBloomFilter.create(capacity, FALSE_POSITIVE_RATE);
+        revoked.keySet().forEach(rebuilt::put);
+        bloomCapacity = capacity;
+        bloomFilter = rebuilt;
+    }
+
+    private void remember(RevokedToken token) {
+        remember(token.getJti(), token.getExpiresAt().atZone(ZoneId.systemDefault()).toInstant());
+    }
+
+    // Synchronized with rebuildFilter() so an id cannot land in a filter that is about to be replaced.
+    // A full filter is only rebuilt in memory; expired rows are left to the scheduled compact().
+    private synchronized void remember(UUID tokenId, Instant expiresAt) {
+        revoked.put(tokenId, expiresAt);
+        bloomFilter.put(tokenId);
+        if (revoked.size() > bloomCapacity) {
+            rebuildFilter(Instant.now());
+        }
+    }
+}
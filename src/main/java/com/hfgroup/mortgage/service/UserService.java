@@ -2,6 +2,7 @@ package com.hfgroup.mortgage.service;
 
 import com.hfgroup.mortgage.Repository.UserRepository;
 import com.hfgroup.mortgage.dto.request.UserRegistrationDTO;
+import com.hfgroup.mortgage.dto.request.UserRolesUpdateDTO;
 import com.hfgroup.mortgage.dto.response.UserResponseDTO;
 import com.hfgroup.mortgage.exception.UserAlreadyExistsException;
 import com.hfgroup.mortgage.exception.UserNotFoundException;
@@ -12,6 +13,7 @@ import org.springframework.security.core.Authentication;
 import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
 import java.util.List;
 import java.util.stream.Collectors;
@@ -22,6 +24,8 @@ public class UserService {
     
     private final UserRepository userRepository;
     private final PasswordEncoder passwordEncoder;
+    private final TokenEpochService tokenEpochService;
+    private final CustomUserDetailsService userDetailsService;
     
     public UserResponseDTO registerUser(UserRegistrationDTO registrationDTO) {
         // Check if username already exists
@@ -36,10 +40,37 @@ public class UserService {
         user.setRoles(registrationDTO.getRoles());
         
         User savedUser = userRepository.save(user);
+        userDetailsService.evict(savedUser.getUsername());
         
         return convertToResponseDTO(savedUser);
     }
     
+    /**
+     * Replaces a user's roles and revokes the tokens issued under the old ones.
+     */
+    @Transactional
+    public UserResponseDTO updateRoles(String userId, UserRolesUpdateDTO rolesUpdateDTO) {
+        User user = userRepository.findById(java.util.UUID.fromString(userId))
+                .orElseThrow(() -> new UserNotFoundException("User not found with id: " + userId));
+
+        user.setRoles(rolesUpdateDTO.getRoles());
+        User savedUser = userRepository.save(user);
+        tokenEpochService.revokeTokens(savedUser.getId());
+        userDetailsService.evict(savedUser.getUsername());
+
+        return convertToResponseDTO(savedUser);
+    }
+
+    @Transactional
+    public void revokeTokens(String userId) {
+        User user = userRepository.findById(java.util.UUID.fromString(userId))
+                .orElseThrow(() -> new UserNotFoundException("User not found with id: " + userId));
+
+        tokenEpochService.revokeTokens(user.getId());
+        // Cached principals carry the epoch, so they must be reloaded after the bump
+        userDetailsService.evict(user.getUsername());
+    }
+    
     public UserResponseDTO getUserById(String userId) {
         User user = userRepository.findById(java.util.UUID.fromString(userId))
                 .orElseThrow(() -> new UserNotFoundException("User not found with id: " + userId));
@@ -0,0 +1,9 @@
+-- V10__add_application_keyset_indexes.sql
+
+-- Keyset pagination orders by (created_at DESC, id DESC); including id lets the seek condition
+-- and the tie-break be answered from the index. These supersede the V9 created_at indexes.
+CREATE INDEX IF NOT EXISTS idx_applications_created_at_id ON applications (created_at, id);
+CREATE INDEX IF NOT EXISTS idx_applications_status_created_at_id ON applications (status, created_at, id);
+
+DROP INDEX IF EXISTS idx_applications_created_at;
+DROP INDEX IF EXISTS idx_applications_status_created_at;
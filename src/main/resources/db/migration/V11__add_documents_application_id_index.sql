@@ -0,0 +1,5 @@
+-- V11__add_documents_application_id_index.sql
+
+-- Documents are loaded per page of applications with application_id IN (...); the foreign key
+-- alone does not create an index on the referencing column in Postgres.
+CREATE INDEX IF NOT EXISTS idx_documents_application_id ON documents (application_id);
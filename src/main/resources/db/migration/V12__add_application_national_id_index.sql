@@ -0,0 +1,5 @@
+-- V12__add_application_national_id_index.sql
+
+-- V6 dropped the UNIQUE constraint on national_id, and its index with it, so lookups by
+-- national ID need an index of their own.
+CREATE INDEX IF NOT EXISTS idx_applications_national_id ON applications (national_id);
@@ -0,0 +1,5 @@
+-- V13__add_version_to_applications.sql
+
+-- Optimistic concurrency: every write to an application bumps version, and writers that
+-- started from an older version are rejected instead of silently overwriting
+ALTER TABLE applications ADD COLUMN version BIGINT NOT NULL DEFAULT 0;
@@ -0,0 +1,7 @@
+-- V14__add_applicant_keyset_index.sql
+
+-- GET /api/v1/applications/mine pages through one applicant's applications newest first;
+-- this index answers each page with a single range scan. It supersedes the V9 index.
+CREATE INDEX IF NOT EXISTS idx_applications_applicant_created_at_id ON applications (applicant_id, created_at DESC, id DESC);
+
+DROP INDEX IF EXISTS idx_applications_applicant_created_at;
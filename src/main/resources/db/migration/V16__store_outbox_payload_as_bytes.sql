@@ -0,0 +1,8 @@
+-- V16__store_outbox_payload_as_bytes.sql
+
+-- Events are encoded by a pluggable codec (binary by default), so the payload is stored as bytes
+-- together with the content type the relay sends in the record header. Rows written before this
+-- migration hold the untyped JSON envelope, which the typed JSON codec cannot decode even though
+-- they are tagged application/json here; V20 rewrites the unpublished ones as typed events.
+ALTER TABLE outbox_events ALTER COLUMN payload TYPE BYTEA USING convert_to(payload, 'UTF8');
+ALTER TABLE outbox_events ADD COLUMN content_type VARCHAR(100) NOT NULL DEFAULT 'application/json';
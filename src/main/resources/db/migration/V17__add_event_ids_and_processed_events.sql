@@ -0,0 +1,15 @@
+-- V17__add_event_ids_and_processed_events.sql
+
+-- The event id is assigned when the event is written and sent as the event-id header, so a
+-- redelivered record carries the same id as the original. Rows written earlier have none.
+ALTER TABLE outbox_events ADD COLUMN event_id UUID;
+
+-- Events a consumer group has finished processing, kept for the de-duplication window
+CREATE TABLE processed_events (
+    consumer_group VARCHAR(100) NOT NULL,
+    event_id UUID NOT NULL,
+    processed_at TIMESTAMP WITHOUT TIME ZONE NOT NULL DEFAULT CURRENT_TIMESTAMP,
+    PRIMARY KEY (consumer_group, event_id)
+);
+
+CREATE INDEX idx_processed_events_processed_at ON processed_events (processed_at);
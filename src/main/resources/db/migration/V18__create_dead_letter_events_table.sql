@@ -0,0 +1,24 @@
+-- V18__create_dead_letter_events_table.sql
+
+-- Records that exhausted the loan.applications retry topics, copied from the DLT so they can be
+-- inspected and replayed through the outbox
+CREATE TABLE dead_letter_events (
+    id BIGSERIAL PRIMARY KEY,
+    original_topic VARCHAR(255) NOT NULL,
+    original_partition INT,
+    original_offset BIGINT,
+    dlt_partition INT NOT NULL,
+    dlt_offset BIGINT NOT NULL,
+    event_key VARCHAR(100),
+    event_id UUID,
+    payload BYTEA,
+    content_type VARCHAR(100),
+    attempts INT NOT NULL,
+    error TEXT,
+    failed_at TIMESTAMP WITHOUT TIME ZONE NOT NULL DEFAULT CURRENT_TIMESTAMP,
+    replayed_at TIMESTAMP WITHOUT TIME ZONE,
+    -- The DLT listener may see a record twice; its DLT coordinates make the copy idempotent
+    UNIQUE (dlt_partition, dlt_offset)
+);
+
+CREATE INDEX idx_dead_letter_events_pending ON dead_letter_events (id) WHERE replayed_at IS NULL;
@@ -0,0 +1,5 @@
+-- V19__add_outbox_unpublished_key_index.sql
+
+-- The relay holds back events whose key has an earlier row it gave up on; this answers that
+-- check per key without scanning the unpublished rows.
+CREATE INDEX IF NOT EXISTS idx_outbox_events_unpublished_key ON outbox_events (topic, event_key, id) WHERE published_at IS NULL;
@@ -0,0 +1,77 @@
+-- V20__convert_legacy_outbox_payloads.sql
+
+-- Rows written before V16 hold the untyped {event, traceId, version, timestamp, payload} envelope.
+-- V16 tagged them application/json, but the JSON codec needs a "type" property and cannot read
+-- them, so every such row would end up on the dead-letter topic. Rewrite the unpublished ones as
+-- the typed events they stand for, keyed by application id like every other event. Published
+-- rows are only kept until the purge and are left alone.
+--   CREATE                          -> ApplicationCreated
+--   UPDATE with a decision payload  -> DecisionMade (the application version was not recorded: 0)
+--   UPDATE with an application      -> ApplicationUpdated
+WITH legacy AS (
+    SELECT id,
+           created_at,
+           convert_from(payload, 'UTF8')::jsonb AS envelope,
+           COALESCE(event_id, gen_random_uuid()) AS new_event_id
+    FROM outbox_events
+    WHERE published_at IS NULL
+      AND content_type = 'application/json'
+      AND convert_from(payload, 'UTF8')::jsonb ? 'traceId'
+      AND NOT convert_from(payload, 'UTF8')::jsonb ? 'type'
+), typed AS (
+    SELECT id,
+           new_event_id,
+           envelope -> 'payload' AS data,
+           to_char((COALESCE((envelope ->> 'timestamp')::timestamp, created_at) AT TIME ZONE current_setting('TimeZone'))
+                       AT TIME ZONE 'UTC', 'YYYY-MM-DD"T"HH24:MI:SS.US"Z"') AS occurred_at,
+           CASE
+               WHEN envelope ->> 'event' = 'CREATE' THEN 'ApplicationCreated'
+               WHEN envelope -> 'payload' ? 'approverId' THEN 'DecisionMade'
+               ELSE 'ApplicationUpdated'
+           END AS type
+    FROM legacy
+)
+UPDATE outbox_events o
+SET event_id = t.new_event_id,
+    event_key = CASE t.type WHEN 'DecisionMade' THEN t.data ->> 'applicationId' ELSE t.data ->> 'id' END,
+    payload = convert_to((CASE t.type
+        WHEN 'ApplicationCreated' THEN jsonb_build_object(
+            'type', t.type,
+            'eventId', t.new_event_id,
+            'occurredAt', t.occurred_at,
+            'applicationId', t.data -> 'id',
+            'applicantId', t.data -> 'applicantId',
+            'nationalId', t.data -> 'nationalId',
+            'amount', t.data -> 'amount',
+            'status', t.data -> 'status',
+            'documents', CASE WHEN jsonb_typeof(t.data -> 'documents') = 'array' THEN (
+                SELECT COALESCE(jsonb_agg(jsonb_build_object(
+                           'id', d -> 'id',
+                           'fileName', d -> 'fileName',
+                           'fileType', d -> 'fileType',
+                           'size', COALESCE(d -> 'size', '0'::jsonb),
+                           'url', d -> 'url')), '[]'::jsonb)
+                FROM jsonb_array_elements(t.data -> 'documents') d)
+                ELSE '[]'::jsonb END)
+        WHEN 'DecisionMade' THEN jsonb_build_object(
+            'type', t.type,
+            'eventId', t.new_event_id,
+            'occurredAt', t.occurred_at,
+            'applicationId', t.data -> 'applicationId',
+            'decisionId', t.data -> 'id',
+            'approverId', t.data -> 'approverId',
+            'decision', t.data -> 'decision',
+            'comment', t.data -> 'comment',
+            'applicationVersion', 0)
+        ELSE jsonb_build_object(
+            'type', t.type,
+            'eventId', t.new_event_id,
+            'occurredAt', t.occurred_at,
+            'applicationId', t.data -> 'id',
+            'nationalId', t.data -> 'nationalId',
+            'amount', t.data -> 'amount',
+            'status', t.data -> 'status',
+            'version', COALESCE(t.data -> 'version', '0'::jsonb))
+    END)::text, 'UTF8')
+FROM typed t
+WHERE o.id = t.id;
@@ -0,0 +1,4 @@
+-- V7__add_token_epoch_to_users.sql
+
+-- Tokens carry the epoch they were issued under; bumping it invalidates every token issued before
+ALTER TABLE users ADD COLUMN token_epoch INTEGER NOT NULL DEFAULT 0;
@@ -0,0 +1,8 @@
+-- V9__add_application_filter_indexes.sql
+
+-- Composite indexes matching the filtered application listing (equality column first, then the
+-- created_at range / sort). national_id lost its UNIQUE constraint, and the index with it, in V6;
+-- V12 indexes it again. V10 and V14 replace these indexes with ones that also cover id.
+CREATE INDEX IF NOT EXISTS idx_applications_status_created_at ON applications (status, created_at);
+CREATE INDEX IF NOT EXISTS idx_applications_applicant_created_at ON applications (applicant_id, created_at);
+CREATE INDEX IF NOT EXISTS idx_applications_created_at ON applications (created_at);
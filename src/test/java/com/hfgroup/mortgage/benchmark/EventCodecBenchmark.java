@@ -0,0 +1,113 @@
+package com.hfgroup.mortgage.benchmark;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import com.hfgroup.mortgage.dto.response.ApplicationView;
+import com.hfgroup.mortgage.dto.response.DocumentView;
+import com.hfgroup.mortgage.event.ApplicationCreated;
+import com.hfgroup.mortgage.event.ApplicationEvent;
+import com.hfgroup.mortgage.event.BinaryApplicationEventCodec;
+import com.hfgroup.mortgage.event.JsonApplicationEventCodec;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compares the previous loan.applications payload (an anonymous envelope object written by
+ * Jackson reflection, read back as a tree) with the typed events in the JSON and binary codecs.
+ * Bytes per event are printed once at setup.
+ *
+ * Run with: mvn test-compile exec:java -Dexec.classpathScope=test
+ *           -Dexec.mainClass=com.hfgroup.mortgage.benchmark.EventCodecBenchmark
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@State(Scope.Benchmark)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class EventCodecBenchmark {
+
+    private ObjectMapper objectMapper;
+    private BinaryApplicationEventCodec binaryCodec;
+    private JsonApplicationEventCodec jsonCodec;
+    private ApplicationView application;
+    private ApplicationEvent event;
+    private byte[] legacyBytes;
+    private byte[] jsonBytes;
+    private byte[] binaryBytes;
+
+    @Setup
+    public void setUp() throws Exception {
+        objectMapper = new ObjectMapper().registerModule(new JavaTimeModule()).disable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS);
+        binaryCodec = new BinaryApplicationEventCodec();
+        jsonCodec = new JsonApplicationEventCodec(objectMapper);
+
+        UUID applicationId = UUID.randomUUID();
+        LocalDateTime now = LocalDateTime.now();
+        application = new ApplicationView(applicationId, UUID.randomUUID(), "12345678", 250000.0, "PENDING", now, now, 0,
+                List.of(new DocumentView(UUID.randomUUID(), applicationId, "payslip.pdf", "application/pdf", 123456,
+                        "https://mortgage-documents.s3.amazonaws.com/uploads/payslip.pdf", now)));
+        event = ApplicationCreated.from(application);
+
+        legacyBytes = legacyEncode();
+        jsonBytes = jsonCodec.encode(event);
+        binaryBytes = binaryCodec.encode(event);
+        System.out.printf("%nBytes per event: legacy JSON %d, typed JSON %d, binary %d%n",
+                legacyBytes.length, jsonBytes.length, binaryBytes.length);
+    }
+
+    @Benchmark
+    public byte[] legacyEncode() throws Exception {
+        // What EventPayloads.of("CREATE", view) produced
+        ApplicationView data = application;
+        return objectMapper.writeValueAsBytes(new Object() {
+            public final String event = "CREATE";
+            public final String traceId = UUID.randomUUID().toString();
+            public final String version = "1.0";
+            public final String timestamp = LocalDateTime.now().toString();
+            public final ApplicationView payload = data;
+        });
+    }
+
+    @Benchmark
+    public JsonNode legacyDecode() throws Exception {
+        return objectMapper.readTree(legacyBytes);
+    }
+
+    @Benchmark
+    public byte[] jsonEncode() {
+        return jsonCodec.encode(event);
+    }
+
+    @Benchmark
+    public ApplicationEvent jsonDecode() {
+        return jsonCodec.decode(jsonBytes);
+    }
+
+    @Benchmark
+    public byte[] binaryEncode() {
+        return binaryCodec.encode(event);
+    }
+
+    @Benchmark
+    public ApplicationEvent binaryDecode() {
+        return binaryCodec.decode(binaryBytes);
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        Options options = new OptionsBuilder()
+                .include(EventCodecBenchmark.class.getSimpleName())
+                .build();
+        new Runner(options).run();
+    }
+}
@@ -0,0 +1,82 @@
+package com.hfgroup.mortgage.benchmark;
+
+import com.hfgroup.mortgage.security.JwtClaims;
+import com.hfgroup.mortgage.security.JwtTokenProvider;
+import com.hfgroup.mortgage.security.VerifiedTokenCache;
+import io.jsonwebtoken.Jwts;
+import io.jsonwebtoken.security.Keys;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compares the per-request JWT verification cost of the previous filter flow
+ * (key and parser rebuilt, signature verified twice) with the single-pass parser,
+ * with and without the verified-token cache.
+ *
+ * Run with: mvn test-compile exec:java -Dexec.classpathScope=test
+ *           -Dexec.mainClass=com.hfgroup.mortgage.benchmark.JwtVerificationBenchmark
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@State(Scope.Benchmark)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class JwtVerificationBenchmark {
+
+    private static final String SECRET = "benchmark-secret-key-that-is-long-enough-for-hs512-signatures-0123456789-abcdefghijklmnop";
+
+    private JwtTokenProvider tokenProvider;
+    private JwtTokenProvider cachingTokenProvider;
+    private String token;
+
+    @Setup
+    public void setUp() {
+        tokenProvider = new JwtTokenProvider(SECRET, 86400000L, new VerifiedTokenCache(0, new SimpleMeterRegistry()));
+        cachingTokenProvider = new JwtTokenProvider(SECRET, 86400000L, new VerifiedTokenCache(1000, new SimpleMeterRegistry()));
+        token = tokenProvider.generateToken(new UsernamePasswordAuthenticationToken(
+                "officer", null, List.of(new SimpleGrantedAuthority("ROLE_OFFICER"))));
+    }
+
+    @Benchmark
+    public String rebuildKeyAndParseTwice() {
+        // validateToken followed by getUsernameFromToken, as the filter used to do
+        Jwts.parser()
+                .verifyWith(Keys.hmacShaKeyFor(SECRET.getBytes()))
+                .build()
+                .parseSignedClaims(token);
+        return Jwts.parser()
+                .verifyWith(Keys.hmacShaKeyFor(SECRET.getBytes()))
+                .build()
+                .parseSignedClaims(token)
+                .getPayload()
+                .getSubject();
+    }
+
+    @Benchmark
+    public Optional<JwtClaims> singlePassParse() {
+        return tokenProvider.parseToken(token);
+    }
+
+    @Benchmark
+    public Optional<JwtClaims> cachedParse() {
+        return cachingTokenProvider.parseToken(token);
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        Options options = new OptionsBuilder()
+                .include(JwtVerificationBenchmark.class.getSimpleName())
+                .build();
+        new Runner(options).run();
+    }
+}
@@ -0,0 +1,81 @@
+package com.hfgroup.mortgage.event;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import org.junit.jupiter.api.Test;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.time.temporal.ChronoUnit;
+import java.util.Arrays;
+import java.util.List;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ApplicationEventCodecTest {
+
+    private final BinaryApplicationEventCodec binary = new BinaryApplicationEventCodec();
+    private final JsonApplicationEventCodec json = new JsonApplicationEventCodec(new ObjectMapper()
+            .registerModule(new JavaTimeModule())
+            .disable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS));
+
+    private final List<ApplicationEvent> events = List.of(
+            new ApplicationCreated(UUID.randomUUID(), Instant.now().truncatedTo(ChronoUnit.MICROS), UUID.randomUUID(),
+                    UUID.randomUUID(), "12345678", 250000.5, "PENDING",
+                    List.of(new ApplicationCreated.Document(UUID.randomUUID(), "payslip ü.pdf", "application/pdf", 123456, "https://bucket/key"))),
+            new ApplicationUpdated(UUID.randomUUID(), Instant.parse("1969-12-31T23:59:59.999999Z"), UUID.randomUUID(),
+                    null, null, "PENDING", 3),
+            new DecisionMade(UUID.randomUUID(), Instant.now().truncatedTo(ChronoUnit.MICROS), UUID.randomUUID(),
+                    UUID.randomUUID(), UUID.randomUUID(), "APPROVED", null, 7));
+
+    @Test
+    void encodeDecode_EveryEventType_RoundTripsInBothCodecs() {
+        for (ApplicationEvent event : events) {
+            // When
+            ApplicationEvent fromBinary = binary.decode(binary.encode(event));
+            ApplicationEvent fromJson = json.decode(json.encode(event));
+
+            // Then
+            assertEquals(event, fromBinary);
+            assertEquals(event, fromJson);
+            assertTrue(binary.encode(event).length < json.encode(event).length);
+        }
+    }
+
+    @Test
+    void decode_TruncatedOrUnknownInput_ThrowsIllegalArgumentException() {
+        // Given
+        byte[] encoded = binary.encode(events.get(0));
+        byte[] futureVersion = encoded.clone();
+        futureVersion[0] = (byte) (BinaryApplicationEventCodec.FORMAT_VERSION + 1);
+
+        // When & Then
+        assertThrows(IllegalArgumentException.class, () -> binary.decode(Arrays.copyOf(encoded, encoded.length - 5)));
+        assertThrows(IllegalArgumentException.class, () -> binary.decode(futureVersion));
+    }
+
+    @Test
+    void decode_LegacyRowsConvertedByV20_DecodeAsTypedEvents() {
+        // Given: jsonb output orders keys its own way, so "type" is not first
+        String created = """
+                {"type": "ApplicationCreated", "amount": 1000.0, "status": "PENDING", "eventId": "0b5f6c0e-2a8c-4a36-9a55-8d4c2c7f1e21", \
+                "documents": [{"id": "6f1c9a57-3d2b-4f0e-b8a4-0e6f3b2d9c11", "url": "https://bucket/key", "size": 12, "fileName": "a.pdf", "fileType": "application/pdf"}], \
+                "nationalId": "12345678", "occurredAt": "2024-01-01T10:00:00.123456Z", "applicantId": "a3c1e9d2-7b44-4f6a-9c1e-2d8b7f5a4e33", \
+                "applicationId": "d1eaa5bb-ca7f-4eaa-ac32-1d21e5aaf123"}""";
+        String updated = """
+                {"type": "ApplicationUpdated", "amount": null, "status": "PENDING", "eventId": "0b5f6c0e-2a8c-4a36-9a55-8d4c2c7f1e22", \
+                "version": null, "nationalId": null, "occurredAt": "2024-01-01T10:00:00Z", "applicationId": "d1eaa5bb-ca7f-4eaa-ac32-1d21e5aaf123"}""";
+
+        // When
+        ApplicationEvent fromCreated = json.decode(created.getBytes(StandardCharsets.UTF_8));
+        ApplicationEvent fromUpdated = json.decode(updated.getBytes(StandardCharsets.UTF_8));
+
+        // Then
+        ApplicationCreated applicationCreated = assertInstanceOf(ApplicationCreated.class, fromCreated);
+        assertEquals(Instant.parse("2024-01-01T10:00:00.123456Z"), applicationCreated.occurredAt());
+        assertEquals(12, applicationCreated.documents().get(0).size());
+        assertEquals(0, assertInstanceOf(ApplicationUpdated.class, fromUpdated).version());
+    }
+}
@@ -0,0 +1,85 @@
+package com.hfgroup.mortgage.security;
+
+import com.hfgroup.mortgage.exception.TooManyRequestsException;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.security.crypto.password.PasswordEncoder;
+
+import java.time.Duration;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class BoundedPasswordEncoderTest {
+
+    private final CountDownLatch release = new CountDownLatch(1);
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private BoundedPasswordEncoder encoder;
+
+    @AfterEach
+    void tearDown() {
+        release.countDown();
+        encoder.close();
+    }
+
+    @Test
+    void encode_DelegatesAndRecordsLatency() {
+        // Given
+        encoder = new BoundedPasswordEncoder(new PrefixEncoder(), 1, 1, Duration.ofSeconds(5), meterRegistry);
+
+        // When
+        String encoded = encoder.encode("secret");
+
+        // Then
+        assertEquals("hashed:secret", encoded);
+        assertTrue(encoder.matches("secret", encoded));
+        assertEquals(1, meterRegistry.get("security.password.hash").tag("operation", "encode").timer().count());
+    }
+
+    @Test
+    void encode_PoolAndQueueFull_ThrowsTooManyRequests() throws Exception {
+        // Given
+        encoder = new BoundedPasswordEncoder(new BlockingEncoder(release), 1, 1, Duration.ofSeconds(5), meterRegistry);
+        CompletableFuture.runAsync(() -> encoder.encode("running"));
+        CompletableFuture.runAsync(() -> encoder.encode("queued"));
+        while (meterRegistry.get("security.password.queue.depth").gauge().value() < 1) {
+            Thread.sleep(5);
+        }
+
+        // When & Then
+        assertThrows(TooManyRequestsException.class, () -> encoder.encode("rejected"));
+        assertEquals(1, meterRegistry.get("security.password.rejected").counter().count());
+    }
+
+    private static class PrefixEncoder implements PasswordEncoder {
+        @Override
+        public String encode(CharSequence rawPassword) {
+            return "hashed:" + rawPassword;
+        }
+
+        @Override
+        public boolean matches(CharSequence rawPassword, String encodedPassword) {
+            return encode(rawPassword).equals(encodedPassword);
+        }
+    }
+
+    private static class BlockingEncoder extends PrefixEncoder {
+        private final CountDownLatch release;
+
+        BlockingEncoder(CountDownLatch release) {
+            this.release = release;
+        }
+
+        @Override
+        public String encode(CharSequence rawPassword) {
+            try {
+                release.await();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            return super.encode(rawPassword);
+        }
+    }
+}
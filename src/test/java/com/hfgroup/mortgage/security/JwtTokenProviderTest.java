@@ -0,0 +1,109 @@
+package com.hfgroup.mortgage.security;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+
+import java.time.Instant;
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class JwtTokenProviderTest {
+
+    private static final String SECRET = "test-secret-key-that-is-long-enough-for-hs512-signatures-0123456789-abcdefghijklmnopqrs";
+
+    private SimpleMeterRegistry meterRegistry;
+    private JwtTokenProvider tokenProvider;
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        tokenProvider = new JwtTokenProvider(SECRET, 60000L, new VerifiedTokenCache(1000, meterRegistry));
+    }
+
+    @Test
+    void parseToken_ValidToken_ReturnsClaims() {
+        // Given
+        String token = tokenProvider.generateToken(new UsernamePasswordAuthenticationToken(
+                "officer", null, List.of(new SimpleGrantedAuthority("ROLE_OFFICER"))));
+
+        // When
+        Optional<JwtClaims> claims = tokenProvider.parseToken(token);
+
+        // Then
+        assertTrue(claims.isPresent());
+        assertEquals("officer", claims.get().subject());
+        assertEquals(List.of("ROLE_OFFICER"), claims.get().roles());
+        assertTrue(claims.get().expiresAt().isAfter(Instant.now()));
+    }
+
+    @Test
+    void parseToken_SameTokenTwice_SecondCallServedFromCache() {
+        // Given
+        String token = tokenProvider.generateToken(new UsernamePasswordAuthenticationToken(
+                "officer", null, List.of(new SimpleGrantedAuthority("ROLE_OFFICER"))));
+
+        // When
+        JwtClaims first = tokenProvider.parseToken(token).orElseThrow();
+        JwtClaims second = tokenProvider.parseToken(token).orElseThrow();
+
+        // Then
+        assertSame(first, second);
+        assertEquals(1.0, meterRegistry.get("cache.gets").tag("cache", "verified-tokens").tag("result", "hit")
+                .functionCounter().count());
+    }
+
+    @Test
+    void parseToken_UserPrincipal_IncludesUserIdAndEpoch() {
+        // Given
+        UserPrincipal principal = UserPrincipal.builder()
+                .id(UUID.randomUUID())
+                .username("applicant")
+                .authorities(List.of(new SimpleGrantedAuthority("ROLE_APPLICANT")))
+                .tokenEpoch(3)
+                .build();
+        String token = tokenProvider.generateToken(
+                new UsernamePasswordAuthenticationToken(principal, null, principal.getAuthorities()));
+
+        // When
+        JwtClaims claims = tokenProvider.parseToken(token).orElseThrow();
+
+        // Then
+        assertTrue(claims.isSelfContained());
+        assertEquals(principal.getId(), claims.userId());
+        assertEquals(3, claims.tokenEpoch());
+        assertEquals(List.of("ROLE_APPLICANT"), UserPrincipal.fromClaims(claims).getAuthorities().stream()
+                .map(Object::toString)
+                .toList());
+    }
+
+    @Test
+    void parseToken_TamperedToken_ReturnsEmpty() {
+        // Given
+        String token = tokenProvider.generateToken(new UsernamePasswordAuthenticationToken(
+                "officer", null, List.of(new SimpleGrantedAuthority("ROLE_OFFICER"))));
+        JwtTokenProvider otherProvider = new JwtTokenProvider(SECRET.replace('a', 'b'), 60000L,
+                new VerifiedTokenCache(1000, new SimpleMeterRegistry()));
+
+        // When & Then
+        assertTrue(otherProvider.parseToken(token).isEmpty());
+        assertFalse(otherProvider.validateToken(token));
+    }
+
+    @Test
+    void parseToken_ExpiredToken_ReturnsEmpty() {
+        // Given
+        JwtTokenProvider expiringProvider = new JwtTokenProvider(SECRET, -1000L,
+                new VerifiedTokenCache(1000, new SimpleMeterRegistry()));
+        String token = expiringProvider.generateToken(new UsernamePasswordAuthenticationToken(
+                "applicant", null, List.of(new SimpleGrantedAuthority("ROLE_APPLICANT"))));
+
+        // When & Then
+        assertTrue(expiringProvider.parseToken(token).isEmpty());
+    }
+}
@@ -0,0 +1,67 @@
+package com.hfgroup.mortgage.security;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class TokenBucketRateLimiterTest {
+
+    private final AtomicLong clock = new AtomicLong();
+    private TokenBucketRateLimiter limiter;
+
+    @BeforeEach
+    void setUp() {
+        // 3 requests burst, refilled at one per second
+        limiter = new TokenBucketRateLimiter("test", 3, 60, 2, 4, clock::get);
+    }
+
+    @Test
+    void tryAcquire_BurstExhausted_RejectsUntilRefilled() {
+        // Given
+        assertTrue(limiter.tryAcquire("alice"));
+        assertTrue(limiter.tryAcquire("alice"));
+        assertTrue(limiter.tryAcquire("alice"));
+
+        // When & Then
+        assertFalse(limiter.tryAcquire("alice"));
+        assertTrue(limiter.tryAcquire("bob"));
+
+        clock.addAndGet(TimeUnit.SECONDS.toNanos(1));
+        assertTrue(limiter.tryAcquire("alice"));
+        assertFalse(limiter.tryAcquire("alice"));
+    }
+
+    @Test
+    void tryAcquire_MaxKeysReached_NewKeysStillGetTheirOwnBucket() {
+        // Given
+        for (int i = 0; i < 100; i++) {
+            limiter.tryAcquire("sprayed-" + i);
+        }
+
+        // When & Then
+        assertTrue(limiter.tryAcquire("carol"));
+        assertTrue(limiter.tryAcquire("carol"));
+        assertTrue(limiter.tryAcquire("carol"));
+        assertTrue(limiter.tryAcquire("dave"));
+        assertTrue(limiter.size() <= 2);
+    }
+
+    @Test
+    void evictIdle_FullyRefilledBuckets_AreRemoved() {
+        // Given
+        limiter.tryAcquire("alice");
+        limiter.tryAcquire("bob");
+
+        // When
+        clock.addAndGet(TimeUnit.SECONDS.toNanos(3));
+        int evicted = limiter.evictIdle();
+
+        // Then
+        assertEquals(2, evicted);
+        assertEquals(0, limiter.size());
+    }
+}
@@ -0,0 +1,56 @@
+package com.hfgroup.mortgage.service;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class ApplicationAccessAuditorTest {
+
+    @Mock
+    private KafkaProducerService kafkaProducerService;
+
+    @Test
+    void flush_RepeatedReads_PublishesOneCountPerApplication() {
+        // Given
+        ApplicationAccessAuditor auditor = new ApplicationAccessAuditor(kafkaProducerService, true, 100);
+        UUID applicationId = UUID.randomUUID();
+        auditor.recordAccess(applicationId);
+        auditor.recordAccess(applicationId);
+        auditor.recordAccess(applicationId);
+
+        // When
+        auditor.flush();
+
+        // Then
+        ArgumentCaptor<Object> payload = ArgumentCaptor.forClass(Object.class);
+        verify(kafkaProducerService).publishMessage(eq("application-fetched"), eq(applicationId), payload.capture());
+        assertEquals(3, ((ApplicationAccessAuditor.AccessCount) payload.getValue()).count());
+
+        // The next window starts empty
+        auditor.flush();
+        verifyNoMoreInteractions(kafkaProducerService);
+    }
+
+    @Test
+    void recordAccess_Disabled_PublishesNothing() {
+        // Given
+        ApplicationAccessAuditor auditor = new ApplicationAccessAuditor(kafkaProducerService, false, 100);
+
+        // When
+        auditor.recordAccess(UUID.randomUUID());
+        auditor.flush();
+
+        // Then
+        verify(kafkaProducerService, never()).publishMessage(any(), any(UUID.class), any());
+    }
+}
@@ -0,0 +1,31 @@
+package com.hfgroup.mortgage.service;
+
+import com.hfgroup.mortgage.exception.InvalidCursorException;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ApplicationCursorTest {
+
+    @Test
+    void decode_EncodedCursor_RoundTrips() {
+        // Given
+        ApplicationCursor cursor = new ApplicationCursor(LocalDateTime.of(2025, 3, 1, 10, 15, 30, 123456000), UUID.randomUUID());
+
+        // When
+        ApplicationCursor decoded = ApplicationCursor.decode(cursor.encode());
+
+        // Then
+        assertEquals(cursor, decoded);
+    }
+
+    @Test
+    void decode_TamperedCursor_ThrowsInvalidCursorException() {
+        // When & Then
+        assertThrows(InvalidCursorException.class, () -> ApplicationCursor.decode("not-a-cursor"));
+        assertThrows(InvalidCursorException.class, () -> ApplicationCursor.decode("%%%"));
+    }
+}
@@ -0,0 +1,69 @@
+package com.hfgroup.mortgage.service;
+
+import com.hfgroup.mortgage.dto.response.ApplicationView;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ApplicationDetailCacheTest {
+
+    private ApplicationDetailCache cache;
+    private UUID applicationId;
+    private AtomicInteger loads;
+
+    @BeforeEach
+    void setUp() {
+        cache = new ApplicationDetailCache(new SimpleMeterRegistry(), 100, Duration.ofMinutes(5));
+        applicationId = UUID.randomUUID();
+        loads = new AtomicInteger();
+    }
+
+    private Optional<ApplicationView> load(UUID id) {
+        loads.incrementAndGet();
+        return Optional.of(new ApplicationView(id, UUID.randomUUID(), "12345678", 100000.0, "PENDING",
+                LocalDateTime.now(), LocalDateTime.now(), 0, List.of()));
+    }
+
+    @Test
+    void get_RepeatedReads_LoadsOnce() {
+        // When
+        cache.get(applicationId, this::load);
+        Optional<ApplicationView> view = cache.get(applicationId, this::load);
+
+        // Then
+        assertTrue(view.isPresent());
+        assertEquals(1, loads.get());
+    }
+
+    @Test
+    void onApplicationChanged_CachedView_IsReloaded() {
+        // Given
+        cache.get(applicationId, this::load);
+
+        // When
+        cache.onApplicationChanged(new ApplicationChangedEvent(applicationId));
+        cache.get(applicationId, this::load);
+
+        // Then
+        assertEquals(2, loads.get());
+    }
+
+    @Test
+    void get_MissingApplication_IsNotCached() {
+        // When
+        assertTrue(cache.get(applicationId, id -> Optional.empty()).isEmpty());
+
+        // Then
+        assertTrue(cache.get(applicationId, this::load).isPresent());
+        assertEquals(1, loads.get());
+    }
+}
@@ -0,0 +1,77 @@
+package com.hfgroup.mortgage.service;
+
+import com.hfgroup.mortgage.event.ApplicationEvent;
+import com.hfgroup.mortgage.event.ApplicationUpdated;
+import com.hfgroup.mortgage.event.BinaryApplicationEventCodec;
+import org.apache.kafka.clients.consumer.ConsumerRecord;
+import org.apache.kafka.clients.producer.ProducerRecord;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.kafka.core.KafkaTemplate;
+
+import java.nio.ByteBuffer;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class ApplicationEventRetryRouterTest {
+
+    @Mock
+    private KafkaTemplate<String, byte[]> kafkaTemplate;
+
+    private static ConsumerRecord<String, ApplicationEvent> record(String topic) {
+        ApplicationEvent event = new ApplicationUpdated(UUID.randomUUID(), Instant.now(), UUID.randomUUID(), null, 1000.0, "PENDING", 1);
+        return new ConsumerRecord<>(topic, 2, 40, event.applicationId().toString(), event);
+    }
+
+    @SuppressWarnings("unchecked")
+    private ProducerRecord<String, byte[]> route(ConsumerRecord<String, ApplicationEvent> record) {
+        ApplicationEventRetryRouter router = new ApplicationEventRetryRouter(kafkaTemplate, new BinaryApplicationEventCodec(), Duration.ofSeconds(1));
+        ArgumentCaptor<ProducerRecord<String, byte[]>> sent = ArgumentCaptor.forClass(ProducerRecord.class);
+        when(kafkaTemplate.send(sent.capture())).thenReturn(CompletableFuture.completedFuture(null));
+        router.routeAll(List.of(new ApplicationEventRetryRouter.Failed(record, new IllegalStateException("boom"))));
+        return sent.getValue();
+    }
+
+    @Test
+    void routeAll_FirstFailure_GoesToFirstTierWithOriginAndDueTime() {
+        // Given
+        ConsumerRecord<String, ApplicationEvent> record = record("loan.applications");
+
+        // When
+        ProducerRecord<String, byte[]> retry = route(record);
+
+        // Then
+        assertEquals("loan.applications.retry.1s", retry.topic());
+        assertEquals(record.key(), retry.key());
+        assertEquals(1, ByteBuffer.wrap(retry.headers().lastHeader(ApplicationEventRetryRouter.ATTEMPTS_HEADER).value()).getInt());
+        assertEquals(40, ByteBuffer.wrap(retry.headers().lastHeader(ApplicationEventRetryRouter.ORIGINAL_OFFSET_HEADER).value()).getLong());
+        assertNotNull(retry.headers().lastHeader(ApplicationEventRetryRouter.DUE_AT_HEADER));
+    }
+
+    @Test
+    void routeAll_LastTierFailure_GoesToDeadLetterTopic() {
+        // Given
+        ConsumerRecord<String, ApplicationEvent> record = record("loan.applications.retry.1m");
+        record.headers().add(ApplicationEventRetryRouter.ATTEMPTS_HEADER,
+                ByteBuffer.allocate(4).putInt(ApplicationEventRetryRouter.TIERS.size()).array());
+
+        // When
+        ProducerRecord<String, byte[]> retry = route(record);
+
+        // Then
+        assertEquals(ApplicationEventRetryRouter.DEAD_LETTER_TOPIC, retry.topic());
+        assertNull(retry.headers().lastHeader(ApplicationEventRetryRouter.DUE_AT_HEADER));
+        verify(kafkaTemplate, times(1)).send(any(ProducerRecord.class));
+    }
+}
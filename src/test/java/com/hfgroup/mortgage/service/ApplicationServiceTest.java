@@ -0,0 +1,162 @@
+package com.hfgroup.mortgage.service;
+
+import com.hfgroup.mortgage.Repository.DecisionJdbcRepository;
+import com.hfgroup.mortgage.dto.request.BulkDecisionDTO;
+import com.hfgroup.mortgage.dto.request.DecisionDTO;
+import com.hfgroup.mortgage.dto.response.BulkDecisionResultDTO;
+import com.hfgroup.mortgage.dto.response.Versioned;
+import com.hfgroup.mortgage.event.ApplicationEvent;
+import com.hfgroup.mortgage.event.DecisionMade;
+import com.hfgroup.mortgage.exception.ApplicationNotFoundException;
+import com.hfgroup.mortgage.exception.DecisionAlreadyExistsException;
+import com.hfgroup.mortgage.exception.VersionConflictException;
+import com.hfgroup.mortgage.model.Decision;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.context.ApplicationEventPublisher;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.argThat;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class ApplicationServiceTest {
+
+    @Mock
+    private DecisionJdbcRepository decisionJdbcRepository;
+
+    @Mock
+    private OutboxService outboxService;
+
+    @Mock
+    private ApplicationEventPublisher eventPublisher;
+
+    @InjectMocks
+    private ApplicationService applicationService;
+
+    @Test
+    void createDecisions_MixedItems_ReportsOutcomePerApplicationInRequestOrder() {
+        // Given
+        UUID approverId = UUID.randomUUID();
+        UUID pending = UUID.randomUUID();
+        UUID decided = UUID.randomUUID();
+        UUID missing = UUID.randomUUID();
+        UUID decisionId = UUID.randomUUID();
+        BulkDecisionDTO request = new BulkDecisionDTO(List.of(
+                new BulkDecisionDTO.Item(pending, "APPROVED", "ok"),
+                new BulkDecisionDTO.Item(decided, "REJECTED", null),
+                new BulkDecisionDTO.Item(pending, "REJECTED", null),
+                new BulkDecisionDTO.Item(missing, "APPROVED", null),
+                new BulkDecisionDTO.Item(UUID.randomUUID(), "MAYBE", null)));
+
+        when(decisionJdbcRepository.decideAll(eq(approverId), anyList())).thenReturn(List.of(
+                new DecisionJdbcRepository.DecisionOutcome(pending, "APPROVED", "ok", decisionId, LocalDateTime.now(), true, "APPROVED", 1L),
+                new DecisionJdbcRepository.DecisionOutcome(decided, "REJECTED", null, null, null, true, "REJECTED", 1L),
+                new DecisionJdbcRepository.DecisionOutcome(missing, "APPROVED", null, null, null, false, null, null)));
+
+        // When
+        BulkDecisionResultDTO result = applicationService.createDecisions(request, approverId);
+
+        // Then
+        assertEquals(1, result.getApplied());
+        assertEquals(List.of(
+                BulkDecisionResultDTO.Status.APPLIED,
+                BulkDecisionResultDTO.Status.ALREADY_DECIDED,
+                BulkDecisionResultDTO.Status.INVALID,
+                BulkDecisionResultDTO.Status.NOT_FOUND,
+                BulkDecisionResultDTO.Status.INVALID),
+                result.getResults().stream().map(BulkDecisionResultDTO.Outcome::status).toList());
+        assertEquals(decisionId, result.getResults().get(0).decisionId());
+
+        verify(decisionJdbcRepository).decideAll(eq(approverId), argThat(commands -> commands.size() == 3));
+        verify(eventPublisher).publishEvent(new ApplicationChangedEvent(pending));
+        verify(outboxService).enqueueAll(eq("loan.applications"), argThat((List<? extends ApplicationEvent> events) -> events.size() == 1 && events.get(0).applicationId().equals(pending)));
+    }
+
+    @Test
+    void createDecisions_AllInvalid_SkipsDatabase() {
+        // Given
+        BulkDecisionDTO request = new BulkDecisionDTO(List.of(new BulkDecisionDTO.Item(null, "APPROVED", null)));
+
+        // When
+        BulkDecisionResultDTO result = applicationService.createDecisions(request, UUID.randomUUID());
+
+        // Then
+        assertEquals(0, result.getApplied());
+        assertEquals(BulkDecisionResultDTO.Status.INVALID, result.getResults().get(0).status());
+        verifyNoInteractions(decisionJdbcRepository, outboxService);
+        verify(eventPublisher, never()).publishEvent(any(Object.class));
+    }
+
+    @Test
+    void createDecision_PendingApplication_ReturnsDecisionFromSingleStatement() {
+        // Given
+        UUID applicationId = UUID.randomUUID();
+        UUID approverId = UUID.randomUUID();
+        UUID decisionId = UUID.randomUUID();
+        when(decisionJdbcRepository.decideAll(eq(approverId), anyList())).thenReturn(List.of(
+                new DecisionJdbcRepository.DecisionOutcome(applicationId, "APPROVED", "fine", decisionId, LocalDateTime.now(), true, "APPROVED", 4L)));
+
+        // When
+        Versioned<Decision> decision = applicationService.createDecision(applicationId, new DecisionDTO("APPROVED", null, "fine"), approverId, 3L);
+
+        // Then
+        assertEquals(decisionId, decision.body().getId());
+        assertEquals(approverId, decision.body().getApproverId());
+        assertEquals(4L, decision.version());
+        verify(eventPublisher).publishEvent(new ApplicationChangedEvent(applicationId));
+        verify(outboxService).enqueue(eq("loan.applications"), argThat(event -> event instanceof DecisionMade made
+                && made.applicationId().equals(applicationId) && made.applicationVersion() == 4L));
+    }
+
+    @Test
+    void createDecision_AlreadyDecided_ThrowsDecisionAlreadyExistsException() {
+        // Given
+        UUID applicationId = UUID.randomUUID();
+        when(decisionJdbcRepository.decideAll(any(), anyList())).thenReturn(List.of(
+                new DecisionJdbcRepository.DecisionOutcome(applicationId, "REJECTED", null, null, null, true, "REJECTED", 1L)));
+
+        // When & Then
+        assertThrows(DecisionAlreadyExistsException.class,
+                () -> applicationService.createDecision(applicationId, new DecisionDTO("REJECTED", null, null), UUID.randomUUID(), null));
+        verifyNoInteractions(outboxService);
+    }
+
+    @Test
+    void createDecision_UnknownApplication_ThrowsApplicationNotFoundException() {
+        // Given
+        UUID applicationId = UUID.randomUUID();
+        when(decisionJdbcRepository.decideAll(any(), anyList())).thenReturn(List.of(
+                new DecisionJdbcRepository.DecisionOutcome(applicationId, "APPROVED", null, null, null, false, null, null)));
+
+        // When & Then
+        assertThrows(ApplicationNotFoundException.class,
+                () -> applicationService.createDecision(applicationId, new DecisionDTO("APPROVED", null, null), UUID.randomUUID(), null));
+    }
+
+    @Test
+    void createDecision_StaleVersion_ThrowsVersionConflictWithCurrentVersion() {
+        // Given
+        UUID applicationId = UUID.randomUUID();
+        when(decisionJdbcRepository.decideAll(any(), anyList())).thenReturn(List.of(
+                new DecisionJdbcRepository.DecisionOutcome(applicationId, "APPROVED", null, null, null, true, "PENDING", 7L)));
+
+        // When
+        VersionConflictException conflict = assertThrows(VersionConflictException.class,
+                () -> applicationService.createDecision(applicationId, new DecisionDTO("APPROVED", null, null), UUID.randomUUID(), 5L));
+
+        // Then
+        assertEquals(7L, conflict.getCurrentVersion());
+        verifyNoInteractions(outboxService);
+    }
+}
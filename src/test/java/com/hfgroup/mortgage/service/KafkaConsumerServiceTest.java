@@ -0,0 +1,138 @@
+package com.hfgroup.mortgage.service;
+
+import com.hfgroup.mortgage.Repository.DeadLetterJdbcRepository;
+import com.hfgroup.mortgage.event.ApplicationEvent;
+import com.hfgroup.mortgage.event.ApplicationEventCodec;
+import com.hfgroup.mortgage.event.ApplicationUpdated;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.apache.kafka.clients.consumer.ConsumerRecord;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.kafka.support.Acknowledgment;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.ArgumentMatchers.argThat;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class KafkaConsumerServiceTest {
+
+    @Mock
+    private ProcessedEventStore processedEventStore;
+
+    @Mock
+    private ApplicationEventRetryRouter retryRouter;
+
+    @Mock
+    private DeadLetterJdbcRepository deadLetterJdbcRepository;
+
+    @Mock
+    private Acknowledgment acknowledgment;
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+    private static ConsumerRecord<String, ApplicationEvent> record(long offset, ApplicationEvent event) {
+        String key = event == null ? null : event.applicationId().toString();
+        return new ConsumerRecord<>("loan.applications", 0, offset, key, event);
+    }
+
+    private static ApplicationEvent event(UUID applicationId) {
+        return new ApplicationUpdated(UUID.randomUUID(), Instant.now(), applicationId, null, 1000.0, "PENDING", 1);
+    }
+
+    @Test
+    void consumeLoanApplicationEvents_BatchWithUndecodableRecord_DeadLettersItAndAcknowledgesBatch() {
+        // Given
+        KafkaConsumerService consumer = new KafkaConsumerService(meterRegistry, processedEventStore, retryRouter, deadLetterJdbcRepository, 4);
+        ApplicationEvent event = event(UUID.randomUUID());
+        when(processedEventStore.findProcessed(any(), anyCollection())).thenReturn(Set.of());
+
+        // When
+        consumer.consumeLoanApplicationEvents(List.of(record(10, event), record(11, null)), acknowledgment);
+
+        // Then
+        verify(retryRouter).routeAll(argThat(failed -> failed.size() == 1 && failed.get(0).record().offset() == 11));
+        verify(acknowledgment, times(1)).acknowledge();
+        verify(processedEventStore).markProcessed(eq("application-group"), eq(Set.of(event.eventId())));
+        assertEquals(2, meterRegistry.get("kafka.listener.records").tag("listener", "loan.applications").counter().count());
+    }
+
+    @Test
+    void consumeLoanApplicationEvents_RedeliveredEvent_IsSkipped() {
+        // Given
+        KafkaConsumerService consumer = new KafkaConsumerService(meterRegistry, processedEventStore, retryRouter, deadLetterJdbcRepository, 4);
+        UUID applicationId = UUID.randomUUID();
+        ApplicationEvent seenBefore = event(applicationId);
+        ApplicationEvent fresh = event(applicationId);
+        when(processedEventStore.findProcessed(any(), anyCollection())).thenReturn(Set.of(seenBefore.eventId()));
+
+        // When
+        consumer.consumeLoanApplicationEvents(List.of(record(1, seenBefore), record(2, fresh), record(3, fresh)), acknowledgment);
+
+        // Then
+        verify(processedEventStore).markProcessed(eq("application-group"), argThat(ids -> ids.equals(Set.of(fresh.eventId()))));
+        assertEquals(2, meterRegistry.get("kafka.listener.duplicates").counter().count());
+        verify(acknowledgment).acknowledge();
+    }
+
+    @Test
+    void consumeLoanApplicationEvents_MalformedEventIdHeader_FallsBackToPayloadIdAndAcknowledges() {
+        // Given
+        KafkaConsumerService consumer = new KafkaConsumerService(meterRegistry, processedEventStore, retryRouter, deadLetterJdbcRepository, 4);
+        ApplicationEvent event = event(UUID.randomUUID());
+        ConsumerRecord<String, ApplicationEvent> record = record(5, event);
+        record.headers().add(ApplicationEventCodec.EVENT_ID_HEADER, "not-a-uuid".getBytes(StandardCharsets.UTF_8));
+        when(processedEventStore.findProcessed(any(), anyCollection())).thenReturn(Set.of());
+
+        // When
+        consumer.consumeLoanApplicationEvents(List.of(record), acknowledgment);
+
+        // Then
+        verify(processedEventStore).markProcessed(eq("application-group"), eq(Set.of(event.eventId())));
+        verify(acknowledgment).acknowledge();
+    }
+
+    @Test
+    void consumeDeadLetters_MalformedEventIdHeader_IsStoredWithoutId() {
+        // Given
+        KafkaConsumerService consumer = new KafkaConsumerService(meterRegistry, processedEventStore, retryRouter, deadLetterJdbcRepository, 4);
+        ConsumerRecord<String, byte[]> record = new ConsumerRecord<>("loan.applications.dlt", 0, 3, "key", new byte[]{1});
+        record.headers().add(ApplicationEventCodec.EVENT_ID_HEADER, "not-a-uuid".getBytes(StandardCharsets.UTF_8));
+
+        // When
+        consumer.consumeDeadLetters(List.of(record), acknowledgment);
+
+        // Then
+        verify(deadLetterJdbcRepository).insertAll(argThat(deadLetters -> deadLetters.size() == 1 && deadLetters.get(0).eventId() == null));
+        verify(acknowledgment).acknowledge();
+    }
+
+    @Test
+    void consumeRetriedLoanApplicationEvent_NotYetDue_IsNackedForRemainingDelay() {
+        // Given
+        KafkaConsumerService consumer = new KafkaConsumerService(meterRegistry, processedEventStore, retryRouter, deadLetterJdbcRepository, 4);
+        ConsumerRecord<String, ApplicationEvent> record = new ConsumerRecord<>("loan.applications.retry.10s", 0, 7, "key", event(UUID.randomUUID()));
+        record.headers().add(ApplicationEventRetryRouter.DUE_AT_HEADER,
+                ByteBuffer.allocate(8).putLong(System.currentTimeMillis() + 10_000).array());
+
+        // When
+        consumer.consumeRetriedLoanApplicationEvent(record, acknowledgment);
+
+        // Then
+        verify(acknowledgment).nack(argThat(delay -> delay.toMillis() > 9_000 && delay.toMillis() <= 10_000));
+        verify(acknowledgment, never()).acknowledge();
+        verifyNoInteractions(processedEventStore, retryRouter);
+    }
+}
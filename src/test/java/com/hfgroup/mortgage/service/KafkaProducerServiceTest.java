@@ -0,0 +1,94 @@
+package com.hfgroup.mortgage.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.kafka.core.KafkaTemplate;
+
+import java.time.Duration;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class KafkaProducerServiceTest {
+
+    @Mock
+    private KafkaTemplate<String, String> kafkaTemplate;
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+    private KafkaProducerService service(int capacity, KafkaProducerService.OverflowPolicy policy) {
+        return new KafkaProducerService(kafkaTemplate, new ObjectMapper(), meterRegistry, capacity, policy,
+                Duration.ofMillis(10), Duration.ofSeconds(5), 100);
+    }
+
+    private double sent(String result) {
+        return meterRegistry.get("kafka.publisher.sent").tag("result", result).counter().count();
+    }
+
+    @Test
+    void stop_QueuedMessages_AreDrainedAndCountedOnAcknowledgement() {
+        // Given
+        when(kafkaTemplate.send(anyString(), any(), anyString())).thenReturn(CompletableFuture.completedFuture(null));
+        KafkaProducerService service = service(10, KafkaProducerService.OverflowPolicy.BLOCK);
+        UUID key = UUID.randomUUID();
+        service.publishMessage("loan.applications", key, Map.of("event", "CREATE"));
+        service.publishMessage("application-created", Map.of("event", "CREATE"));
+
+        // When
+        service.start();
+        service.stop();
+
+        // Then
+        verify(kafkaTemplate).send("loan.applications", key.toString(), "{\"event\":\"CREATE\"}");
+        verify(kafkaTemplate).send(eq("application-created"), isNull(), anyString());
+        verify(kafkaTemplate).flush();
+        assertEquals(2, sent("success"));
+        assertEquals(2, meterRegistry.get("kafka.publisher.latency").timer().count());
+    }
+
+    @Test
+    void publishMessage_QueueFull_AppliesOverflowPolicy() {
+        // Given
+        KafkaProducerService dropping = service(1, KafkaProducerService.OverflowPolicy.DROP_NEWEST);
+        dropping.publishMessage("t", UUID.randomUUID(), "first");
+
+        // When
+        dropping.publishMessage("t", UUID.randomUUID(), "second");
+
+        // Then
+        assertEquals(1, sent("dropped"));
+
+        KafkaProducerService rejecting = service(1, KafkaProducerService.OverflowPolicy.REJECT);
+        rejecting.publishMessage("t", UUID.randomUUID(), "first");
+        assertThrows(KafkaProducerService.PublishRejectedException.class,
+                () -> rejecting.publishMessage("t", UUID.randomUUID(), "second"));
+        verifyNoInteractions(kafkaTemplate);
+    }
+
+    @Test
+    void send_BrokerFailure_CountsFailure() {
+        // Given
+        when(kafkaTemplate.send(anyString(), any(), anyString())).thenReturn(CompletableFuture.failedFuture(new IllegalStateException("broker down")));
+        KafkaProducerService service = service(10, KafkaProducerService.OverflowPolicy.BLOCK);
+        service.publishMessage("t", UUID.randomUUID(), "payload");
+
+        // When
+        service.start();
+        service.stop();
+
+        // Then
+        assertEquals(1, sent("failure"));
+        assertEquals(0, sent("success"));
+    }
+}
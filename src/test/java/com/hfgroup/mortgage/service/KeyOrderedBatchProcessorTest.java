@@ -0,0 +1,72 @@
+package com.hfgroup.mortgage.service;
+
+import org.apache.kafka.clients.consumer.ConsumerRecord;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class KeyOrderedBatchProcessorTest {
+
+    private final KeyOrderedBatchProcessor processor = new KeyOrderedBatchProcessor(8);
+
+    @AfterEach
+    void tearDown() {
+        processor.close();
+    }
+
+    private static List<ConsumerRecord<String, Integer>> batch(int size, int keys) {
+        List<ConsumerRecord<String, Integer>> records = new ArrayList<>();
+        for (int i = 0; i < size; i++) {
+            records.add(new ConsumerRecord<>("loan.applications", 0, i, "key-" + (i % keys), i));
+        }
+        return records;
+    }
+
+    @Test
+    void process_ManyKeys_KeepsOrderPerKey() {
+        // Given
+        List<ConsumerRecord<String, Integer>> records = batch(1000, 37);
+        Map<String, List<Integer>> seen = new ConcurrentHashMap<>();
+
+        // When
+        List<KeyOrderedBatchProcessor.Incomplete> incomplete = processor.process(records, record -> seen.computeIfAbsent(record.key(), key -> new CopyOnWriteArrayList<>()).add(record.value()));
+
+        // Then
+        assertTrue(incomplete.isEmpty());
+        assertEquals(37, seen.size());
+        seen.values().forEach(values -> {
+            for (int i = 1; i < values.size(); i++) {
+                assertTrue(values.get(i - 1) < values.get(i));
+            }
+        });
+    }
+
+    @Test
+    void process_Failure_ReturnsFailedAndSkippedRecordsOfThatKeyInOrder() {
+        // Given
+        List<ConsumerRecord<String, Integer>> records = batch(20, 4);
+        List<Integer> processed = new CopyOnWriteArrayList<>();
+
+        // When
+        List<KeyOrderedBatchProcessor.Incomplete> incomplete = processor.process(records, record -> {
+            if (record.value() == 5 || record.value() == 14) {
+                throw new IllegalStateException("boom");
+            }
+            processed.add(record.value());
+        });
+
+        // Then
+        // key-1 stops at 5, key-2 stops at 14
+        assertEquals(List.of(5, 9, 13, 14, 17, 18), incomplete.stream().map(KeyOrderedBatchProcessor.Incomplete::index).toList());
+        assertNotNull(incomplete.get(0).error());
+        assertNull(incomplete.get(1).error());
+        assertEquals(14, processed.size());
+    }
+}
@@ -0,0 +1,66 @@
+package com.hfgroup.mortgage.service;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.SimpleTransactionStatus;
+
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class OptimisticRetryTemplateTest {
+
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
+    private OptimisticRetryTemplate retryTemplate;
+    private final AtomicInteger attempts = new AtomicInteger();
+
+    @BeforeEach
+    void setUp() {
+        when(transactionManager.getTransaction(any())).thenAnswer(invocation -> new SimpleTransactionStatus());
+        retryTemplate = new OptimisticRetryTemplate(transactionManager, 3, Duration.ZERO);
+    }
+
+    private String conflictTimes(int conflicts) {
+        if (attempts.incrementAndGet() <= conflicts) {
+            throw new OptimisticLockingFailureException("stale");
+        }
+        return "saved";
+    }
+
+    @Test
+    void execute_TransientConflict_RetriesInFreshTransaction() {
+        // When
+        String result = retryTemplate.execute(() -> conflictTimes(2));
+
+        // Then
+        assertEquals("saved", result);
+        assertEquals(3, attempts.get());
+        verify(transactionManager, times(3)).getTransaction(any());
+        verify(transactionManager, times(2)).rollback(any());
+    }
+
+    @Test
+    void execute_PersistentConflict_GivesUpAfterMaxAttempts() {
+        // When & Then
+        assertThrows(OptimisticLockingFailureException.class, () -> retryTemplate.execute(() -> conflictTimes(5)));
+        assertEquals(3, attempts.get());
+    }
+
+    @Test
+    void executeOnce_Conflict_IsNotRetried() {
+        // When & Then
+        assertThrows(OptimisticLockingFailureException.class, () -> retryTemplate.executeOnce(() -> conflictTimes(1)));
+        assertEquals(1, attempts.get());
+    }
+}
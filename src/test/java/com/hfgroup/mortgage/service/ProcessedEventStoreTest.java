@@ -0,0 +1,81 @@
+package com.hfgroup.mortgage.service;
+
+import com.hfgroup.mortgage.Repository.ProcessedEventJdbcRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+import java.util.function.Consumer;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class ProcessedEventStoreTest {
+
+    private static final String GROUP = "application-group";
+
+    @Mock
+    private ProcessedEventJdbcRepository processedEventJdbcRepository;
+
+    private ProcessedEventStore store;
+    private UUID storedId;
+
+    @BeforeEach
+    void setUp() {
+        store = new ProcessedEventStore(processedEventJdbcRepository, new SimpleMeterRegistry(), 1000, Duration.ofDays(1));
+        storedId = UUID.randomUUID();
+        doAnswer(invocation -> {
+            Consumer<UUID> action = invocation.getArgument(1);
+            action.accept(storedId);
+            return null;
+        }).when(processedEventJdbcRepository).forEachProcessed(eq(GROUP), any());
+    }
+
+    @Test
+    void findProcessed_NewIds_AnsweredWithoutQuery() {
+        // When
+        Set<UUID> processed = store.findProcessed(GROUP, List.of(UUID.randomUUID(), UUID.randomUUID()));
+
+        // Then
+        assertTrue(processed.isEmpty());
+        verify(processedEventJdbcRepository, never()).findProcessed(any(), any());
+    }
+
+    @Test
+    void findProcessed_IdStoredBeforeRestart_IsFoundInTable() {
+        // Given
+        when(processedEventJdbcRepository.findProcessed(GROUP, List.of(storedId))).thenReturn(Set.of(storedId));
+
+        // When
+        Set<UUID> processed = store.findProcessed(GROUP, List.of(storedId));
+
+        // Then
+        assertEquals(Set.of(storedId), processed);
+    }
+
+    @Test
+    void catchUp_IdStoredByAnotherInstance_IsLookedUp() {
+        // Given
+        UUID elsewhere = UUID.randomUUID();
+        store.findProcessed(GROUP, List.of(UUID.randomUUID()));
+        when(processedEventJdbcRepository.findProcessedSince(eq(GROUP), any(LocalDateTime.class))).thenReturn(List.of(elsewhere));
+        when(processedEventJdbcRepository.findProcessed(GROUP, List.of(elsewhere))).thenReturn(Set.of(elsewhere));
+
+        // When
+        store.catchUp(GROUP);
+        Set<UUID> processed = store.findProcessed(GROUP, List.of(elsewhere));
+
+        // Then
+        assertEquals(Set.of(elsewhere), processed);
+    }
+}
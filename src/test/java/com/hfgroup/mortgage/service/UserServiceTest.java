@@ -2,6 +2,7 @@ package com.hfgroup.mortgage.service;
 
 import com.hfgroup.mortgage.Repository.UserRepository;
 import com.hfgroup.mortgage.dto.request.UserRegistrationDTO;
+import com.hfgroup.mortgage.dto.request.UserRolesUpdateDTO;
 import com.hfgroup.mortgage.dto.response.UserResponseDTO;
 import com.hfgroup.mortgage.exception.UserAlreadyExistsException;
 import com.hfgroup.mortgage.exception.UserNotFoundException;
@@ -31,6 +32,12 @@ class UserServiceTest {
     @Mock
     private PasswordEncoder passwordEncoder;
 
+    @Mock
+    private TokenEpochService tokenEpochService;
+
+    @Mock
+    private CustomUserDetailsService userDetailsService;
+
     @InjectMocks
     private UserService userService;
 
@@ -74,6 +81,7 @@ class UserServiceTest {
         verify(userRepository).existsByUsername("testuser");
         verify(passwordEncoder).encode("password123");
         verify(userRepository).save(any(User.class));
+        verify(userDetailsService).evict("testuser");
     }
 
     @Test
@@ -90,6 +98,23 @@ class UserServiceTest {
         verify(userRepository, never()).save(any(User.class));
     }
 
+    @Test
+    void updateRoles_Success_RevokesExistingTokens() {
+        // Given
+        UserRolesUpdateDTO rolesUpdateDTO = new UserRolesUpdateDTO();
+        rolesUpdateDTO.setRoles("OFFICER");
+        when(userRepository.findById(userId)).thenReturn(Optional.of(user));
+        when(userRepository.save(any(User.class))).thenReturn(user);
+
+        // When
+        UserResponseDTO result = userService.updateRoles(userId.toString(), rolesUpdateDTO);
+
+        // Then
+        assertEquals("OFFICER", result.getRoles());
+        verify(tokenEpochService).revokeTokens(userId);
+        verify(userDetailsService).evict("testuser");
+    }
+
     @Test
     void getUserById_Success() {
         // Given